@@ -0,0 +1,17 @@
+package com.gurnek.wallet.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * WebFlux + R2DBC version of the core wallet API, kept as a frozen baseline for load comparisons with the MVC
+ * service. Its DTOs, exceptions and controllers are deliberate copies; features added to the main service after
+ * this module was written are not ported here.
+ */
+@SpringBootApplication
+public class ReactiveWalletApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveWalletApplication.class, args);
+    }
+}
@@ -0,0 +1,44 @@
+package com.gurnek.wallet.reactive.api;
+
+import com.gurnek.wallet.reactive.api.dto.CreateUserRequest;
+import com.gurnek.wallet.reactive.api.dto.CreateUserResponse;
+import com.gurnek.wallet.reactive.api.dto.DepositRequest;
+import com.gurnek.wallet.reactive.api.dto.WalletResponse;
+import com.gurnek.wallet.reactive.service.WalletService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1")
+public class WalletController {
+
+    private final WalletService walletService;
+
+    public WalletController(WalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    @PostMapping("/users")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CreateUserResponse> createUser(@Valid @RequestBody CreateUserRequest request) {
+        return walletService.createUserWithWallet(request);
+    }
+
+    @PostMapping("/wallets/{walletId}/deposit")
+    public Mono<WalletResponse> deposit(@PathVariable Long walletId, @Valid @RequestBody DepositRequest request) {
+        return walletService.deposit(walletId, request.amount());
+    }
+
+    @GetMapping("/wallets/{walletId}")
+    public Mono<WalletResponse> getWallet(@PathVariable Long walletId) {
+        return walletService.getWallet(walletId);
+    }
+}
@@ -0,0 +1,13 @@
+package com.gurnek.wallet.reactive.api.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+public record CreateUserRequest(
+        @NotBlank(message = "fullName is required")
+        String fullName,
+        @NotBlank(message = "email is required")
+        @Email(message = "email must be valid")
+        String email
+) {
+}
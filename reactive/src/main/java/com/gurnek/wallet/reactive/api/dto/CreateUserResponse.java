@@ -0,0 +1,7 @@
+package com.gurnek.wallet.reactive.api.dto;
+
+public record CreateUserResponse(
+        Long userId,
+        Long walletId
+) {
+}
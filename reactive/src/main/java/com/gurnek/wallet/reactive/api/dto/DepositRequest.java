@@ -0,0 +1,13 @@
+package com.gurnek.wallet.reactive.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+public record DepositRequest(
+        @NotNull(message = "amount is required")
+        @DecimalMin(value = "0.01", message = "amount must be greater than 0")
+        BigDecimal amount
+) {
+}
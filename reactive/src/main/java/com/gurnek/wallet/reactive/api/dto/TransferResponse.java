@@ -0,0 +1,16 @@
+package com.gurnek.wallet.reactive.api.dto;
+
+import com.gurnek.wallet.reactive.domain.TransferStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record TransferResponse(
+        Long transferId,
+        Long fromWalletId,
+        Long toWalletId,
+        BigDecimal amount,
+        TransferStatus status,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.gurnek.wallet.reactive.api.dto;
+
+import java.math.BigDecimal;
+
+public record WalletResponse(
+        Long walletId,
+        BigDecimal balance
+) {
+}
@@ -0,0 +1,5 @@
+package com.gurnek.wallet.reactive.domain;
+
+public enum TransferStatus {
+    SUCCESS
+}
@@ -0,0 +1,7 @@
+package com.gurnek.wallet.reactive.service;
+
+public class BusinessException extends RuntimeException {
+    public BusinessException(String message) {
+        super(message);
+    }
+}
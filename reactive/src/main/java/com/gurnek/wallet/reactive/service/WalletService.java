@@ -0,0 +1,174 @@
+package com.gurnek.wallet.reactive.service;
+
+import com.gurnek.wallet.reactive.api.dto.CreateUserRequest;
+import com.gurnek.wallet.reactive.api.dto.CreateUserResponse;
+import com.gurnek.wallet.reactive.api.dto.TransferRequest;
+import com.gurnek.wallet.reactive.api.dto.TransferResponse;
+import com.gurnek.wallet.reactive.api.dto.WalletResponse;
+import com.gurnek.wallet.reactive.domain.TransferStatus;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Non-blocking counterpart of the MVC {@code WalletService}. Balance changes are conditional
+ * {@code UPDATE} statements inside one R2DBC transaction, and wallet rows are always touched in
+ * ascending id order so opposing transfers cannot deadlock.
+ */
+@Service
+public class WalletService {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletService.class);
+    private final DatabaseClient db;
+    private final TransactionalOperator tx;
+
+    public WalletService(DatabaseClient db, TransactionalOperator tx) {
+        this.db = db;
+        this.tx = tx;
+    }
+
+    public Mono<CreateUserResponse> createUserWithWallet(CreateUserRequest request) {
+        Mono<CreateUserResponse> create = db.sql("INSERT INTO user_account (full_name, email, created_at) VALUES (:fullName, :email, :createdAt)")
+                .bind("fullName", request.fullName())
+                .bind("email", request.email())
+                .bind("createdAt", OffsetDateTime.now(ZoneOffset.UTC))
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .flatMap(userId -> db.sql("INSERT INTO wallet (user_id, balance, version) VALUES (:userId, 0, 0)")
+                        .bind("userId", userId)
+                        .filter(statement -> statement.returnGeneratedValues("id"))
+                        .map(row -> row.get("id", Long.class))
+                        .one()
+                        .map(walletId -> new CreateUserResponse(userId, walletId)));
+        return create.as(tx::transactional)
+                .doOnSubscribe(s -> log.info("Creating user and wallet for email={}", request.email()))
+                .doOnNext(created -> log.info("Created userId={} with walletId={}", created.userId(), created.walletId()));
+    }
+
+    public Mono<WalletResponse> deposit(Long walletId, BigDecimal amount) {
+        Mono<WalletResponse> deposit = adjustBalance(walletId, amount)
+                .flatMap(updated -> updated ? findWallet(walletId) : Mono.error(new NotFoundException("wallet not found")));
+        return deposit.as(tx::transactional)
+                .doOnSubscribe(s -> log.info("Deposit request walletId={} amount={}", walletId, amount))
+                .doOnNext(saved -> log.info("Deposit success walletId={} newBalance={}", saved.walletId(), saved.balance()));
+    }
+
+    public Mono<TransferResponse> transfer(TransferRequest request, String idempotencyKey) {
+        if (request.fromWalletId().equals(request.toWalletId())) {
+            log.warn("Transfer rejected because source and destination wallets are equal: walletId={}", request.fromWalletId());
+            return Mono.error(new BusinessException("fromWalletId and toWalletId cannot be the same"));
+        }
+        return findTransferByKey(idempotencyKey)
+                .doOnNext(existing -> log.info("Idempotent replay detected for key={} transferId={}", idempotencyKey, existing.transferId()))
+                .switchIfEmpty(Mono.defer(() -> executeTransfer(request, idempotencyKey).as(tx::transactional)))
+                .onErrorResume(DuplicateKeyException.class, ex -> {
+                    log.info("Concurrent idempotent replay detected for key={}", idempotencyKey);
+                    return findTransferByKey(idempotencyKey);
+                })
+                .doOnSubscribe(s -> log.info("Transfer request fromWalletId={} toWalletId={} amount={} idempotencyKey={}",
+                        request.fromWalletId(), request.toWalletId(), request.amount(), idempotencyKey));
+    }
+
+    public Mono<TransferResponse> getTransfer(Long transferId) {
+        return db.sql("SELECT * FROM transfer_transaction WHERE id = :id")
+                .bind("id", transferId)
+                .map(this::toTransferResponse)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("transfer not found")));
+    }
+
+    public Mono<WalletResponse> getWallet(Long walletId) {
+        return findWallet(walletId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("wallet not found")));
+    }
+
+    private Mono<TransferResponse> executeTransfer(TransferRequest request, String idempotencyKey) {
+        Long from = request.fromWalletId();
+        Long to = request.toWalletId();
+        BigDecimal amount = request.amount();
+        Mono<Void> debit = debit(from, amount);
+        Mono<Void> credit = adjustBalance(to, amount)
+                .flatMap(updated -> updated ? Mono.<Void>empty() : Mono.error(new NotFoundException("destination wallet not found")));
+        Mono<Void> balanceChanges = from < to ? debit.then(credit) : credit.then(debit);
+
+        return balanceChanges
+                .then(db.sql("INSERT INTO transfer_transaction (from_wallet_id, to_wallet_id, amount, status, idempotency_key, created_at) "
+                                + "VALUES (:from, :to, :amount, :status, :key, :createdAt)")
+                        .bind("from", from)
+                        .bind("to", to)
+                        .bind("amount", amount)
+                        .bind("status", TransferStatus.SUCCESS.name())
+                        .bind("key", idempotencyKey)
+                        .bind("createdAt", OffsetDateTime.now(ZoneOffset.UTC))
+                        .filter(statement -> statement.returnGeneratedValues("id"))
+                        .map(row -> row.get("id", Long.class))
+                        .one())
+                .flatMap(this::getTransfer)
+                .doOnNext(saved -> log.info("Transfer success transferId={} fromWalletId={} toWalletId={} amount={}",
+                        saved.transferId(), saved.fromWalletId(), saved.toWalletId(), saved.amount()));
+    }
+
+    private Mono<Void> debit(Long walletId, BigDecimal amount) {
+        return db.sql("UPDATE wallet SET balance = balance - :amount, version = version + 1 WHERE id = :id AND balance >= :amount")
+                .bind("amount", amount)
+                .bind("id", walletId)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(rows -> {
+                    if (rows > 0) {
+                        return Mono.<Void>empty();
+                    }
+                    return findWallet(walletId)
+                            .switchIfEmpty(Mono.error(() -> new NotFoundException("source wallet not found")))
+                            .flatMap(wallet -> {
+                                log.warn("Transfer rejected for insufficient balance walletId={} balance={} requested={}",
+                                        walletId, wallet.balance(), amount);
+                                return Mono.error(new BusinessException("insufficient balance"));
+                            });
+                });
+    }
+
+    private Mono<Boolean> adjustBalance(Long walletId, BigDecimal delta) {
+        return db.sql("UPDATE wallet SET balance = balance + :delta, version = version + 1 WHERE id = :id")
+                .bind("delta", delta)
+                .bind("id", walletId)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    private Mono<WalletResponse> findWallet(Long walletId) {
+        return db.sql("SELECT id, balance FROM wallet WHERE id = :id")
+                .bind("id", walletId)
+                .map(row -> new WalletResponse(row.get("id", Long.class), row.get("balance", BigDecimal.class)))
+                .one();
+    }
+
+    private Mono<TransferResponse> findTransferByKey(String idempotencyKey) {
+        return db.sql("SELECT * FROM transfer_transaction WHERE idempotency_key = :key")
+                .bind("key", idempotencyKey)
+                .map(this::toTransferResponse)
+                .one();
+    }
+
+    private TransferResponse toTransferResponse(Readable row) {
+        return new TransferResponse(
+                row.get("id", Long.class),
+                row.get("from_wallet_id", Long.class),
+                row.get("to_wallet_id", Long.class),
+                row.get("amount", BigDecimal.class),
+                TransferStatus.valueOf(row.get("status", String.class)),
+                row.get("created_at", OffsetDateTime.class).toInstant()
+        );
+    }
+}
@@ -0,0 +1,23 @@
+CREATE TABLE IF NOT EXISTS user_account (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    full_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS wallet (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL UNIQUE REFERENCES user_account (id),
+    balance NUMERIC(19, 2) NOT NULL,
+    version BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS transfer_transaction (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_wallet_id BIGINT NOT NULL,
+    to_wallet_id BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,131 @@
+package com.gurnek.wallet.reactive.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ReactiveWalletIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void shouldCreateUsersDepositAndTransferWithIdempotency() {
+        Long walletA = createUser("Alex Doe", uniqueEmail("alex"));
+        Long walletB = createUser("Jamie Doe", uniqueEmail("jamie"));
+        deposit(walletA, "200.00");
+        String key = "tx-" + UUID.randomUUID();
+
+        JsonNode first = transfer(walletA, walletB, "50.00", key)
+                .expectStatus().isCreated()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        JsonNode duplicate = transfer(walletA, walletB, "50.00", key)
+                .expectStatus().isCreated()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+
+        assertThat(duplicate.get("transferId").asLong()).isEqualTo(first.get("transferId").asLong());
+        assertThat(balance(walletA)).isEqualByComparingTo("150.00");
+        assertThat(balance(walletB)).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void shouldNeverOverdraftUnderConcurrentTransfers() {
+        Long walletA = createUser("Race A", uniqueEmail("race-a"));
+        Long walletB = createUser("Race B", uniqueEmail("race-b"));
+        deposit(walletA, "100.00");
+
+        List<Integer> statuses = Flux.range(0, 25)
+                .parallel(8)
+                .runOn(Schedulers.boundedElastic())
+                .map(i -> transfer(walletA, walletB, "10.00", "race-" + UUID.randomUUID())
+                        .returnResult(String.class)
+                        .getStatus()
+                        .value())
+                .sequential()
+                .collectList()
+                .block();
+
+        assertThat(statuses).filteredOn(status -> status == 201).hasSize(10);
+        assertThat(statuses).filteredOn(status -> status == 400).hasSize(15);
+        assertThat(balance(walletA)).isEqualByComparingTo("0.00");
+        assertThat(balance(walletB)).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void shouldRejectInvalidTransfers() {
+        Long walletA = createUser("Low Balance A", uniqueEmail("low-a"));
+        Long walletB = createUser("Low Balance B", uniqueEmail("low-b"));
+
+        transfer(walletA, walletB, "10.00", "insufficient-" + UUID.randomUUID()).expectStatus().isBadRequest();
+        transfer(walletA, walletA, "10.00", "same-" + UUID.randomUUID()).expectStatus().isBadRequest();
+        transfer(walletA, 999999L, "0.00", "zero-" + UUID.randomUUID()).expectStatus().isBadRequest();
+        webTestClient.post().uri("/api/v1/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"fromWalletId": %d, "toWalletId": %d, "amount": 10.00}
+                        """.formatted(walletA, walletB))
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/v1/wallets/{walletId}", 999999L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private WebTestClient.ResponseSpec transfer(Long from, Long to, String amount, String key) {
+        return webTestClient.post().uri("/api/v1/transfers")
+                .header("X-Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"fromWalletId": %d, "toWalletId": %d, "amount": %s}
+                        """.formatted(from, to, amount))
+                .exchange();
+    }
+
+    private void deposit(Long walletId, String amount) {
+        webTestClient.post().uri("/api/v1/wallets/{walletId}/deposit", walletId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"amount": %s}
+                        """.formatted(amount))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private BigDecimal balance(Long walletId) {
+        return webTestClient.get().uri("/api/v1/wallets/{walletId}", walletId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody()
+                .get("balance").decimalValue();
+    }
+
+    private Long createUser(String fullName, String email) {
+        return webTestClient.post().uri("/api/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"fullName":"%s", "email":"%s"}
+                        """.formatted(fullName, email))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(JsonNode.class).returnResult().getResponseBody()
+                .get("walletId").asLong();
+    }
+
+    private String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@example.com";
+    }
+}
@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Runs the same WorkloadSimulator HTTP workload against the MVC app and the reactive app, one at a time.
+# usage: scripts/compare-stacks.sh [simulator properties...]
+#   mvn -q package -DskipTests && mvn -q -f reactive/pom.xml package -DskipTests
+#   scripts/compare-stacks.sh --wallet.simulator.arrival-rate-per-second=400 --wallet.simulator.duration=60s
+set -euo pipefail
+
+port=${PORT:-18081}
+simulator_jar=target/wallet-transfer-service-0.0.1-SNAPSHOT.jar
+declare -A targets=(
+  [mvc]="$simulator_jar"
+  [reactive]=reactive/target/wallet-transfer-service-reactive-0.0.1-SNAPSHOT.jar
+)
+
+simulate() {
+  local log
+  log=$(mktemp)
+  java -jar "$simulator_jar" --server.port=0 --wallet.simulator.enabled=true --wallet.simulator.mode=HTTP \
+      --wallet.simulator.base-url="http://localhost:${port}" "$@" >"$log" 2>&1 &
+  local pid=$!
+  until grep -q 'Simulation finished' "$log"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      cat "$log" >&2
+      return 1
+    fi
+    sleep 1
+  done
+  sed -n '/Simulation finished/,$p' "$log" | tail -n +2 | grep -v '^[0-9]\{4\}-'
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  rm -f "$log"
+}
+
+for stack in mvc reactive; do
+  java -Dserver.port="$port" -jar "${targets[$stack]}" >/dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:${port}/actuator/health"; do
+    sleep 0.2
+  done
+  simulate --wallet.simulator.duration=15s "$@" >/dev/null
+  echo "== ${stack}"
+  simulate "$@"
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
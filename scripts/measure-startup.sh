@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Measures JVM start -> "Started" log line and JVM start -> first successful transfer.
+# usage: scripts/measure-startup.sh <runs> <java args...>
+#   scripts/measure-startup.sh 5 -jar target/wallet-transfer-service-0.0.1-SNAPSHOT.jar
+#   scripts/measure-startup.sh 5 -XX:SharedArchiveFile=target/application/application.jsa \
+#       -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup \
+#       -jar target/application/wallet-transfer-service-0.0.1-SNAPSHOT.jar
+set -euo pipefail
+
+runs=$1
+shift
+port=${PORT:-18080}
+base="http://localhost:${port}/api/v1"
+
+for run in $(seq 1 "$runs"); do
+  log=$(mktemp)
+  start=$(date +%s%N)
+  java -Dserver.port="$port" "$@" >"$log" 2>&1 &
+  pid=$!
+
+  until curl -sf -o /dev/null -X POST "$base/users" -H 'Content-Type: application/json' \
+      -d "{\"fullName\":\"A\",\"email\":\"a-${run}@example.com\"}"; do
+    sleep 0.02
+  done
+  curl -sf -o /dev/null -X POST "$base/users" -H 'Content-Type: application/json' \
+      -d "{\"fullName\":\"B\",\"email\":\"b-${run}@example.com\"}"
+  curl -sf -o /dev/null -X POST "$base/wallets/1/deposit" -H 'Content-Type: application/json' -d '{"amount":10.00}'
+  curl -sf -o /dev/null -X POST "$base/transfers" -H 'Content-Type: application/json' \
+      -H "X-Idempotency-Key: startup-${run}" -d '{"fromWalletId":1,"toWalletId":2,"amount":1.00}'
+  first_transfer=$(( ($(date +%s%N) - start) / 1000000 ))
+
+  started=$(grep -o 'Started WalletTransferApplication in [0-9.]* seconds' "$log" | grep -o '[0-9.]*' | head -1)
+  echo "run=${run} started_in=${started}s time_to_first_transfer=${first_transfer}ms"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  rm -f "$log"
+done
@@ -1,9 +1,15 @@
 package com.gurnek.wallet;
 
+import com.gurnek.wallet.service.HoldProperties;
+import com.gurnek.wallet.service.ScheduleProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableConfigurationProperties({HoldProperties.class, ScheduleProperties.class})
 public class WalletTransferApplication {
 
     public static void main(String[] args) {
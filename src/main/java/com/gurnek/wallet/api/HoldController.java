@@ -0,0 +1,52 @@
+package com.gurnek.wallet.api;
+
+import com.gurnek.wallet.api.dto.CaptureHoldRequest;
+import com.gurnek.wallet.api.dto.CreateHoldRequest;
+import com.gurnek.wallet.api.dto.HoldResponse;
+import com.gurnek.wallet.service.HoldService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/wallets/{walletId}/holds")
+public class HoldController {
+
+    private static final String IDEMPOTENCY_HEADER = "X-Idempotency-Key";
+    private final HoldService holdService;
+
+    public HoldController(HoldService holdService) {
+        this.holdService = holdService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public HoldResponse authorize(@PathVariable Long walletId,
+                                  @Valid @RequestBody CreateHoldRequest request,
+                                  @RequestHeader(IDEMPOTENCY_HEADER) String idempotencyKey) {
+        return holdService.authorize(walletId, request.toWalletId(), request.amount(), request.ttlSeconds(), idempotencyKey);
+    }
+
+    @GetMapping("/{holdId}")
+    public HoldResponse getHold(@PathVariable Long walletId, @PathVariable Long holdId) {
+        return holdService.getHold(walletId, holdId);
+    }
+
+    @PostMapping("/{holdId}/capture")
+    public HoldResponse capture(@PathVariable Long walletId, @PathVariable Long holdId,
+                                @Valid @RequestBody(required = false) CaptureHoldRequest request) {
+        return holdService.capture(walletId, holdId, request == null ? null : request.amount());
+    }
+
+    @PostMapping("/{holdId}/release")
+    public HoldResponse release(@PathVariable Long walletId, @PathVariable Long holdId) {
+        return holdService.release(walletId, holdId);
+    }
+}
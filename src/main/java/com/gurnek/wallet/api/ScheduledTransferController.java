@@ -0,0 +1,52 @@
+package com.gurnek.wallet.api;
+
+import com.gurnek.wallet.api.dto.CreateScheduledTransferRequest;
+import com.gurnek.wallet.api.dto.ScheduledTransferResponse;
+import com.gurnek.wallet.service.ScheduledTransferService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/wallets/{walletId}/scheduled-transfers")
+public class ScheduledTransferController {
+
+    private static final String IDEMPOTENCY_HEADER = "X-Idempotency-Key";
+    private final ScheduledTransferService scheduledTransferService;
+
+    public ScheduledTransferController(ScheduledTransferService scheduledTransferService) {
+        this.scheduledTransferService = scheduledTransferService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ScheduledTransferResponse create(@PathVariable Long walletId,
+                                            @Valid @RequestBody CreateScheduledTransferRequest request,
+                                            @RequestHeader(IDEMPOTENCY_HEADER) String idempotencyKey) {
+        return scheduledTransferService.create(walletId, request, idempotencyKey);
+    }
+
+    @GetMapping
+    public List<ScheduledTransferResponse> list(@PathVariable Long walletId) {
+        return scheduledTransferService.listSchedules(walletId);
+    }
+
+    @GetMapping("/{scheduleId}")
+    public ScheduledTransferResponse get(@PathVariable Long walletId, @PathVariable Long scheduleId) {
+        return scheduledTransferService.getSchedule(walletId, scheduleId);
+    }
+
+    @PostMapping("/{scheduleId}/cancel")
+    public ScheduledTransferResponse cancel(@PathVariable Long walletId, @PathVariable Long scheduleId) {
+        return scheduledTransferService.cancel(walletId, scheduleId);
+    }
+}
@@ -2,8 +2,11 @@ package com.gurnek.wallet.api;
 
 import com.gurnek.wallet.api.dto.TransferRequest;
 import com.gurnek.wallet.api.dto.TransferResponse;
+import com.gurnek.wallet.cluster.TransferSaga;
+import com.gurnek.wallet.service.IdempotencyKeys;
 import com.gurnek.wallet.service.WalletService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,16 +23,20 @@ public class TransferController {
 
     private static final String IDEMPOTENCY_HEADER = "X-Idempotency-Key";
     private final WalletService walletService;
+    private final ObjectProvider<TransferSaga> transferSaga;
 
-    public TransferController(WalletService walletService) {
+    public TransferController(WalletService walletService, ObjectProvider<TransferSaga> transferSaga) {
         this.walletService = walletService;
+        this.transferSaga = transferSaga;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public TransferResponse transfer(@Valid @RequestBody TransferRequest request,
                                      @RequestHeader(IDEMPOTENCY_HEADER) String idempotencyKey) {
-        return walletService.transfer(request, idempotencyKey);
+        TransferResponse response = walletService.transfer(request, IdempotencyKeys.requireClientKey(idempotencyKey));
+        TransferSaga saga = transferSaga.getIfAvailable();
+        return saga == null ? response : saga.complete(response);
     }
 
     @GetMapping("/{transferId}")
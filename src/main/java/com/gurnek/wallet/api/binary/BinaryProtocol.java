@@ -0,0 +1,98 @@
+package com.gurnek.wallet.api.binary;
+
+import com.gurnek.wallet.domain.TransferStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format shared by {@link BinaryProtocolServer} and {@link BinaryProtocolClient}.
+ * <p>
+ * Every frame is a big-endian {@code int} body length followed by the body. Request bodies start with
+ * an opcode byte and a caller-chosen {@code long} request id; response bodies start with a status byte
+ * and echo the request id. Responses on a connection are written in request order, so callers may
+ * pipeline any number of requests before reading. Amounts travel as {@code long} minor units (cents) and transfer
+ * statuses as the fixed {@code TRANSFER_*} codes below, never as enum ordinals.
+ * <p>
+ * Response bodies only ever grow by appending fields, and readers ignore trailing bytes they do not know, so a
+ * client and a server of different versions still understand each other's common prefix. A transfer carries
+ * {@code transferId, fromWalletId, toWalletId, amount, status, createdAt} followed by {@code creditedAmount} and
+ * {@code fxRateVersion} ({@code 0} when the transfer was not converted); a wallet carries
+ * {@code walletId, balance} followed by its {@code currency} string.
+ * <p>
+ * The server only serves wallets owned by its own node. In cluster mode a request naming another node's wallet is
+ * answered with {@link #STATUS_WRONG_NODE}; cross-partition transfers must go through the REST API, which routes
+ * them and runs the transfer saga.
+ */
+public final class BinaryProtocol {
+
+    public static final int MAX_FRAME_LENGTH = 64 * 1024;
+    public static final int MAX_KEY_LENGTH = 255;
+
+    public static final byte OP_TRANSFER = 1;
+    public static final byte OP_GET_WALLET = 2;
+    public static final byte OP_GET_TRANSFER = 3;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_NOT_FOUND = 1;
+    public static final byte STATUS_BUSINESS_ERROR = 2;
+    public static final byte STATUS_BAD_REQUEST = 3;
+    public static final byte STATUS_INTERNAL_ERROR = 4;
+    public static final byte STATUS_CONFLICT = 5;
+    public static final byte STATUS_WRONG_NODE = 6;
+
+    public static final byte TRANSFER_SUCCESS = 0;
+    public static final byte TRANSFER_DEBIT_HELD = 1;
+    public static final byte TRANSFER_CREDITED = 2;
+    public static final byte TRANSFER_COMPENSATED = 3;
+
+    private static final int AMOUNT_SCALE = 2;
+
+    private BinaryProtocol() {
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, AMOUNT_SCALE);
+    }
+
+    public static byte toWireCode(TransferStatus status) {
+        return switch (status) {
+            case SUCCESS -> TRANSFER_SUCCESS;
+            case DEBIT_HELD -> TRANSFER_DEBIT_HELD;
+            case CREDITED -> TRANSFER_CREDITED;
+            case COMPENSATED -> TRANSFER_COMPENSATED;
+        };
+    }
+
+    public static TransferStatus fromWireCode(byte code) {
+        return switch (code) {
+            case TRANSFER_SUCCESS -> TransferStatus.SUCCESS;
+            case TRANSFER_DEBIT_HELD -> TransferStatus.DEBIT_HELD;
+            case TRANSFER_CREDITED -> TransferStatus.CREDITED;
+            case TRANSFER_COMPENSATED -> TransferStatus.COMPENSATED;
+            default -> throw new IllegalArgumentException("unknown transfer status code " + code);
+        };
+    }
+
+    public static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    public static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("string length exceeds frame");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
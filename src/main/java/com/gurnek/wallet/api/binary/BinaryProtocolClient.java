@@ -0,0 +1,171 @@
+package com.gurnek.wallet.api.binary;
+
+import com.gurnek.wallet.api.dto.TransferResponse;
+import com.gurnek.wallet.api.dto.WalletResponse;
+import com.gurnek.wallet.domain.TransferStatus;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Reference client for {@link BinaryProtocolServer}. Requests are buffered by the {@code send*}
+ * methods and written on {@link #flush()}; responses come back in send order from {@link #read()}.
+ * Instances are not thread-safe; use one client per calling thread.
+ */
+public class BinaryProtocolClient implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer in = ByteBuffer.allocate(BinaryProtocol.MAX_FRAME_LENGTH + Integer.BYTES);
+    private final Queue<Byte> pendingOpcodes = new ArrayDeque<>();
+
+    public BinaryProtocolClient(String host, int port) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        this.channel.socket().setTcpNoDelay(true);
+        this.in.flip();
+    }
+
+    public void sendTransfer(long requestId, long fromWalletId, long toWalletId, BigDecimal amount,
+                             String idempotencyKey) throws IOException {
+        int lengthPosition = beginFrame(BinaryProtocol.OP_TRANSFER, requestId);
+        out.putLong(fromWalletId);
+        out.putLong(toWalletId);
+        out.putLong(BinaryProtocol.toMinorUnits(amount));
+        BinaryProtocol.putString(out, idempotencyKey);
+        endFrame(lengthPosition, BinaryProtocol.OP_TRANSFER);
+    }
+
+    public void sendGetWallet(long requestId, long walletId) throws IOException {
+        int lengthPosition = beginFrame(BinaryProtocol.OP_GET_WALLET, requestId);
+        out.putLong(walletId);
+        endFrame(lengthPosition, BinaryProtocol.OP_GET_WALLET);
+    }
+
+    public void sendGetTransfer(long requestId, long transferId) throws IOException {
+        int lengthPosition = beginFrame(BinaryProtocol.OP_GET_TRANSFER, requestId);
+        out.putLong(transferId);
+        endFrame(lengthPosition, BinaryProtocol.OP_GET_TRANSFER);
+    }
+
+    public void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    public BinaryResponse read() throws IOException {
+        Byte opcode = pendingOpcodes.poll();
+        if (opcode == null) {
+            throw new IllegalStateException("no request in flight");
+        }
+        ByteBuffer body = readFrame();
+        byte status = body.get();
+        long requestId = body.getLong();
+        if (status != BinaryProtocol.STATUS_OK) {
+            return new BinaryResponse(status, requestId, BinaryProtocol.getString(body), null, null);
+        }
+        // Trailing fields are absent when talking to a server that predates them.
+        if (opcode == BinaryProtocol.OP_GET_WALLET) {
+            long walletId = body.getLong();
+            BigDecimal balance = BinaryProtocol.fromMinorUnits(body.getLong());
+            String currency = body.hasRemaining() ? BinaryProtocol.getString(body) : null;
+            return new BinaryResponse(status, requestId, null, null, new WalletResponse(walletId, balance, currency));
+        }
+        long transferId = body.getLong();
+        long fromWalletId = body.getLong();
+        long toWalletId = body.getLong();
+        BigDecimal amount = BinaryProtocol.fromMinorUnits(body.getLong());
+        TransferStatus transferStatus = BinaryProtocol.fromWireCode(body.get());
+        Instant createdAt = Instant.ofEpochMilli(body.getLong());
+        BigDecimal creditedAmount = amount;
+        Long fxRateVersion = null;
+        if (body.hasRemaining()) {
+            creditedAmount = BinaryProtocol.fromMinorUnits(body.getLong());
+            long version = body.getLong();
+            fxRateVersion = version == 0L ? null : version;
+        }
+        TransferResponse transfer = new TransferResponse(transferId, fromWalletId, toWalletId, amount, creditedAmount,
+                fxRateVersion, transferStatus, createdAt);
+        return new BinaryResponse(status, requestId, null, transfer, null);
+    }
+
+    public BinaryResponse transfer(long requestId, long fromWalletId, long toWalletId, BigDecimal amount,
+                                   String idempotencyKey) throws IOException {
+        sendTransfer(requestId, fromWalletId, toWalletId, amount, idempotencyKey);
+        flush();
+        return read();
+    }
+
+    public BinaryResponse getWallet(long requestId, long walletId) throws IOException {
+        sendGetWallet(requestId, walletId);
+        flush();
+        return read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int beginFrame(byte opcode, long requestId) throws IOException {
+        if (out.remaining() < BinaryProtocol.MAX_KEY_LENGTH * 4 + 64) {
+            flush();
+        }
+        int lengthPosition = out.position();
+        out.putInt(0);
+        out.put(opcode);
+        out.putLong(requestId);
+        return lengthPosition;
+    }
+
+    private void endFrame(int lengthPosition, byte opcode) {
+        out.putInt(lengthPosition, out.position() - lengthPosition - Integer.BYTES);
+        pendingOpcodes.add(opcode);
+    }
+
+    private ByteBuffer readFrame() throws IOException {
+        fill(Integer.BYTES);
+        int length = in.getInt();
+        fill(length);
+        ByteBuffer body = in.slice(in.position(), length);
+        in.position(in.position() + length);
+        return body;
+    }
+
+    private void fill(int required) throws IOException {
+        if (in.remaining() >= required) {
+            return;
+        }
+        in.compact();
+        while (in.position() < required) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("binary transport closed the connection");
+            }
+        }
+        in.flip();
+    }
+
+    public record BinaryResponse(
+            byte status,
+            long requestId,
+            String error,
+            TransferResponse transfer,
+            WalletResponse wallet
+    ) {
+        public boolean isOk() {
+            return status == BinaryProtocol.STATUS_OK;
+        }
+    }
+}
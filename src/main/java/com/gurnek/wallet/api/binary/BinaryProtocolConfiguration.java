@@ -0,0 +1,20 @@
+package com.gurnek.wallet.api.binary;
+
+import com.gurnek.wallet.service.WalletPartitioning;
+import com.gurnek.wallet.service.WalletService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BinaryProtocolProperties.class)
+@ConditionalOnProperty(prefix = "wallet.binary", name = "enabled", havingValue = "true")
+public class BinaryProtocolConfiguration {
+
+    @Bean
+    public BinaryProtocolServer binaryProtocolServer(WalletService walletService, WalletPartitioning walletPartitioning,
+                                                     BinaryProtocolProperties properties) {
+        return new BinaryProtocolServer(new BinaryRequestHandler(walletService, walletPartitioning), properties);
+    }
+}
@@ -0,0 +1,15 @@
+package com.gurnek.wallet.api.binary;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "wallet.binary")
+public record BinaryProtocolProperties(
+        @DefaultValue("false")
+        boolean enabled,
+        @DefaultValue("9090")
+        int port,
+        @DefaultValue("64")
+        int maxConnections
+) {
+}
@@ -0,0 +1,164 @@
+package com.gurnek.wallet.api.binary;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Length-prefixed binary transport for high-volume internal callers.
+ * <p>
+ * Each accepted connection is served by its own thread reading frames from a persistent
+ * {@link SocketChannel}. All complete frames in the read buffer are handled before the coalesced
+ * responses are flushed, so pipelined callers pay one write per batch instead of one per request.
+ */
+public class BinaryProtocolServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryProtocolServer.class);
+    private static final int RESPONSE_BUFFER_SIZE = 64 * 1024;
+    private static final int RESPONSE_RESERVE = 4 * 1024;
+
+    private final BinaryRequestHandler handler;
+    private final BinaryProtocolProperties properties;
+    private final Semaphore connectionPermits;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocketChannel serverChannel;
+    private volatile boolean running;
+
+    BinaryProtocolServer(BinaryRequestHandler handler, BinaryProtocolProperties properties) {
+        this.handler = handler;
+        this.properties = properties;
+        this.connectionPermits = new Semaphore(properties.maxConnections());
+    }
+
+    @Override
+    public void start() {
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(properties.port()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("could not bind binary transport on port " + properties.port(), ex);
+        }
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "binary-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Binary transport listening on port={}", getPort());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(serverChannel);
+        connections.forEach(this::closeQuietly);
+        log.info("Binary transport stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException ex) {
+                return;
+            } catch (IOException ex) {
+                log.warn("Binary transport accept failed: {}", ex.getMessage());
+                continue;
+            }
+            if (!connectionPermits.tryAcquire()) {
+                log.warn("Binary transport rejected connection, maxConnections={} reached", properties.maxConnections());
+                closeQuietly(channel);
+                continue;
+            }
+            connections.add(channel);
+            Thread worker = new Thread(() -> serve(channel), "binary-conn-" + channel.socket().getPort());
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        ByteBuffer in = ByteBuffer.allocate(BinaryProtocol.MAX_FRAME_LENGTH + Integer.BYTES);
+        ByteBuffer out = ByteBuffer.allocate(RESPONSE_BUFFER_SIZE);
+        try {
+            channel.socket().setTcpNoDelay(true);
+            while (running && channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= Integer.BYTES) {
+                    int length = in.getInt(in.position());
+                    if (length <= 0 || length > BinaryProtocol.MAX_FRAME_LENGTH) {
+                        log.warn("Closing binary connection after invalid frame length={}", length);
+                        return;
+                    }
+                    if (in.remaining() < Integer.BYTES + length) {
+                        break;
+                    }
+                    int bodyStart = in.position() + Integer.BYTES;
+                    ByteBuffer body = in.slice(bodyStart, length);
+                    in.position(bodyStart + length);
+
+                    if (out.remaining() < RESPONSE_RESERVE) {
+                        flush(channel, out);
+                    }
+                    int lengthPosition = out.position();
+                    out.putInt(0);
+                    handler.handle(body, out);
+                    out.putInt(lengthPosition, out.position() - lengthPosition - Integer.BYTES);
+                }
+                in.compact();
+                flush(channel, out);
+            }
+        } catch (IOException ex) {
+            if (running) {
+                log.debug("Binary connection closed: {}", ex.getMessage());
+            }
+        } finally {
+            connections.remove(channel);
+            closeQuietly(channel);
+            connectionPermits.release();
+        }
+    }
+
+    private void flush(SocketChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void closeQuietly(Channel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            log.debug("Ignoring close failure: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.gurnek.wallet.api.binary;
+
+import com.gurnek.wallet.api.dto.TransferRequest;
+import com.gurnek.wallet.api.dto.TransferResponse;
+import com.gurnek.wallet.api.dto.WalletResponse;
+import com.gurnek.wallet.service.BusinessException;
+import com.gurnek.wallet.service.IdempotencyKeys;
+import com.gurnek.wallet.service.NotFoundException;
+import com.gurnek.wallet.service.WalletPartitioning;
+import com.gurnek.wallet.service.WalletService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes a single request body, runs it through {@link WalletService} and encodes the response,
+ * mapping exceptions the same way {@code ApiExceptionHandler} does for the REST API.
+ */
+class BinaryRequestHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryRequestHandler.class);
+    private final WalletService walletService;
+    private final WalletPartitioning walletPartitioning;
+
+    BinaryRequestHandler(WalletService walletService, WalletPartitioning walletPartitioning) {
+        this.walletService = walletService;
+        this.walletPartitioning = walletPartitioning;
+    }
+
+    void handle(ByteBuffer request, ByteBuffer response) {
+        byte opcode;
+        long requestId;
+        try {
+            opcode = request.get();
+            requestId = request.getLong();
+        } catch (BufferUnderflowException ex) {
+            writeError(response, BinaryProtocol.STATUS_BAD_REQUEST, 0L, "malformed frame header");
+            return;
+        }
+
+        try {
+            switch (opcode) {
+                case BinaryProtocol.OP_TRANSFER -> handleTransfer(request, response, requestId);
+                case BinaryProtocol.OP_GET_WALLET -> handleGetWallet(request, response, requestId);
+                case BinaryProtocol.OP_GET_TRANSFER -> writeTransfer(response, requestId, walletService.getTransfer(request.getLong()));
+                default -> writeError(response, BinaryProtocol.STATUS_BAD_REQUEST, requestId, "unknown opcode " + opcode);
+            }
+        } catch (NotFoundException ex) {
+            writeError(response, BinaryProtocol.STATUS_NOT_FOUND, requestId, ex.getMessage());
+        } catch (BusinessException ex) {
+            log.warn("Business rule violation on binary transport: {}", ex.getMessage());
+            writeError(response, BinaryProtocol.STATUS_BUSINESS_ERROR, requestId, ex.getMessage());
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            log.warn("Optimistic lock conflict on binary transport: {}", ex.getMessage());
+            writeError(response, BinaryProtocol.STATUS_CONFLICT, requestId, "concurrent update, retry the request");
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Data integrity violation on binary transport: {}", ex.getMostSpecificCause().getMessage());
+            writeError(response, BinaryProtocol.STATUS_CONFLICT, requestId, "request conflicts with existing data");
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            writeError(response, BinaryProtocol.STATUS_BAD_REQUEST, requestId, "malformed request body");
+        } catch (RuntimeException ex) {
+            log.error("Binary request failed requestId={} opcode={}", requestId, opcode, ex);
+            writeError(response, BinaryProtocol.STATUS_INTERNAL_ERROR, requestId, "internal error");
+        }
+    }
+
+    private void handleTransfer(ByteBuffer request, ByteBuffer response, long requestId) {
+        long fromWalletId = request.getLong();
+        long toWalletId = request.getLong();
+        long amountMinorUnits = request.getLong();
+        String idempotencyKey = BinaryProtocol.getString(request);
+
+        if (amountMinorUnits <= 0) {
+            writeError(response, BinaryProtocol.STATUS_BAD_REQUEST, requestId, "amount: amount must be greater than 0");
+            return;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > BinaryProtocol.MAX_KEY_LENGTH) {
+            writeError(response, BinaryProtocol.STATUS_BAD_REQUEST, requestId,
+                    "idempotencyKey: must be 1 to " + BinaryProtocol.MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        if (isRemote(response, requestId, fromWalletId) || isRemote(response, requestId, toWalletId)) {
+            return;
+        }
+
+        TransferRequest transferRequest = new TransferRequest(
+                fromWalletId, toWalletId, BinaryProtocol.fromMinorUnits(amountMinorUnits));
+        writeTransfer(response, requestId, walletService.transfer(transferRequest, IdempotencyKeys.requireClientKey(idempotencyKey)));
+    }
+
+    private void handleGetWallet(ByteBuffer request, ByteBuffer response, long requestId) {
+        long walletId = request.getLong();
+        if (!isRemote(response, requestId, walletId)) {
+            writeWallet(response, requestId, walletService.getWallet(walletId));
+        }
+    }
+
+    /**
+     * Writes {@link BinaryProtocol#STATUS_WRONG_NODE} if {@code walletId} belongs to another cluster node. The
+     * binary transport does not route requests or run the cross-partition saga.
+     */
+    private boolean isRemote(ByteBuffer response, long requestId, long walletId) {
+        if (!walletPartitioning.isRemote(walletId)) {
+            return false;
+        }
+        writeError(response, BinaryProtocol.STATUS_WRONG_NODE, requestId, "wallet " + walletId + " is owned by another node");
+        return true;
+    }
+
+    private void writeTransfer(ByteBuffer response, long requestId, TransferResponse transfer) {
+        response.put(BinaryProtocol.STATUS_OK);
+        response.putLong(requestId);
+        response.putLong(transfer.transferId());
+        response.putLong(transfer.fromWalletId());
+        response.putLong(transfer.toWalletId());
+        response.putLong(BinaryProtocol.toMinorUnits(transfer.amount()));
+        response.put(BinaryProtocol.toWireCode(transfer.status()));
+        response.putLong(transfer.createdAt() == null ? 0L : transfer.createdAt().toEpochMilli());
+        response.putLong(BinaryProtocol.toMinorUnits(transfer.creditedAmount()));
+        response.putLong(transfer.fxRateVersion() == null ? 0L : transfer.fxRateVersion());
+    }
+
+    private void writeWallet(ByteBuffer response, long requestId, WalletResponse wallet) {
+        response.put(BinaryProtocol.STATUS_OK);
+        response.putLong(requestId);
+        response.putLong(wallet.walletId());
+        response.putLong(BinaryProtocol.toMinorUnits(wallet.balance()));
+        BinaryProtocol.putString(response, wallet.currency());
+    }
+
+    private void writeError(ByteBuffer response, byte status, long requestId, String message) {
+        response.put(status);
+        response.putLong(requestId);
+        BinaryProtocol.putString(response, message == null ? "" : message);
+    }
+}
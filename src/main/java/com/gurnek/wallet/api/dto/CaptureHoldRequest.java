@@ -0,0 +1,11 @@
+package com.gurnek.wallet.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+
+import java.math.BigDecimal;
+
+public record CaptureHoldRequest(
+        @DecimalMin(value = "0.01", message = "amount must be greater than 0")
+        BigDecimal amount
+) {
+}
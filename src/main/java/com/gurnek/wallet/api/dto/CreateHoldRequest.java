@@ -0,0 +1,18 @@
+package com.gurnek.wallet.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record CreateHoldRequest(
+        @NotNull(message = "toWalletId is required")
+        Long toWalletId,
+        @NotNull(message = "amount is required")
+        @DecimalMin(value = "0.01", message = "amount must be greater than 0")
+        BigDecimal amount,
+        @Positive(message = "ttlSeconds must be positive")
+        Long ttlSeconds
+) {
+}
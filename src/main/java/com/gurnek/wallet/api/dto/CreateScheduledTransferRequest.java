@@ -0,0 +1,23 @@
+package com.gurnek.wallet.api.dto;
+
+import com.gurnek.wallet.domain.TransferRecurrence;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record CreateScheduledTransferRequest(
+        @NotNull(message = "toWalletId is required")
+        Long toWalletId,
+        @NotNull(message = "amount is required")
+        @DecimalMin(value = "0.01", message = "amount must be greater than 0")
+        BigDecimal amount,
+        TransferRecurrence recurrence,
+        Instant startAt,
+        Instant endAt,
+        @Positive(message = "maxOccurrences must be positive")
+        Integer maxOccurrences
+) {
+}
@@ -2,12 +2,15 @@ package com.gurnek.wallet.api.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 
 public record CreateUserRequest(
         @NotBlank(message = "fullName is required")
         String fullName,
         @NotBlank(message = "email is required")
         @Email(message = "email must be valid")
-        String email
+        String email,
+        @Pattern(regexp = "[A-Z]{3}", message = "currency must be a 3-letter ISO 4217 code")
+        String currency
 ) {
 }
@@ -0,0 +1,19 @@
+package com.gurnek.wallet.api.dto;
+
+import com.gurnek.wallet.domain.HoldStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record HoldResponse(
+        Long holdId,
+        Long walletId,
+        Long toWalletId,
+        BigDecimal amount,
+        BigDecimal capturedAmount,
+        HoldStatus status,
+        Long captureTransferId,
+        Instant expiresAt,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,25 @@
+package com.gurnek.wallet.api.dto;
+
+import com.gurnek.wallet.domain.ScheduleStatus;
+import com.gurnek.wallet.domain.TransferRecurrence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ScheduledTransferResponse(
+        Long scheduleId,
+        Long fromWalletId,
+        Long toWalletId,
+        BigDecimal amount,
+        TransferRecurrence recurrence,
+        Instant startAt,
+        Instant endAt,
+        Integer maxOccurrences,
+        long occurrencesRun,
+        Instant nextRunAt,
+        ScheduleStatus status,
+        Long lastTransferId,
+        String lastError,
+        Instant createdAt
+) {
+}
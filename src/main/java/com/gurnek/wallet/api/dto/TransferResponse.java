@@ -10,6 +10,8 @@ public record TransferResponse(
         Long fromWalletId,
         Long toWalletId,
         BigDecimal amount,
+        BigDecimal creditedAmount,
+        Long fxRateVersion,
         TransferStatus status,
         Instant createdAt
 ) {
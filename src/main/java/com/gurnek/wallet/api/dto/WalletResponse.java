@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 
 public record WalletResponse(
         Long walletId,
-        BigDecimal balance
+        BigDecimal balance,
+        String currency
 ) {
 }
@@ -0,0 +1,42 @@
+package com.gurnek.wallet.cluster;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Hands out ascending ids for one table from the id blocks owned by this node. Resumes after the highest id
+ * already in the node's database, which is read lazily so the schema can be created first.
+ */
+final class BlockIdAllocator {
+
+    private final String table;
+    private final WalletRouter router;
+    private final JdbcTemplate jdbcTemplate;
+    private long next;
+
+    BlockIdAllocator(String table, WalletRouter router, JdbcTemplate jdbcTemplate) {
+        this.table = table;
+        this.router = router;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    synchronized long next() {
+        if (next == 0) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            next = alignToOwnedBlock(Math.max(1L, max + 1));
+        } else if (next % router.blockSize() == 0) {
+            next = alignToOwnedBlock(next);
+        }
+        return next++;
+    }
+
+    private long alignToOwnedBlock(long candidate) {
+        long block = candidate / router.blockSize();
+        if (router.ownsBlock(block)) {
+            return candidate;
+        }
+        do {
+            block++;
+        } while (!router.ownsBlock(block));
+        return block * router.blockSize();
+    }
+}
@@ -0,0 +1,56 @@
+package com.gurnek.wallet.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gurnek.wallet.service.WalletPartitioning;
+import com.gurnek.wallet.service.WalletService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.cluster", name = "enabled", havingValue = "true")
+    public WalletRouter walletRouter(ClusterProperties properties, JdbcTemplate jdbcTemplate) {
+        return new WalletRouter(properties, jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.cluster", name = "enabled", havingValue = "true")
+    public TransferSaga transferSaga(WalletService walletService, WalletRouter walletRouter,
+                                     ClusterProperties properties, ObjectMapper objectMapper) {
+        return new TransferSaga(walletService, walletRouter, properties, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.cluster", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<ClusterRoutingFilter> clusterRoutingFilter(WalletRouter walletRouter,
+                                                                            ObjectMapper objectMapper,
+                                                                            ClusterProperties properties) {
+        FilterRegistrationBean<ClusterRoutingFilter> registration = new FilterRegistrationBean<>(
+                new ClusterRoutingFilter(walletRouter, objectMapper, properties.requestTimeout()));
+        registration.addUrlPatterns("/api/v1/*");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.cluster", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<ClusterSecretFilter> clusterSecretFilter(ObjectMapper objectMapper,
+                                                                          ClusterProperties properties) {
+        FilterRegistrationBean<ClusterSecretFilter> registration = new FilterRegistrationBean<>(
+                new ClusterSecretFilter(properties.secret(), objectMapper));
+        registration.addUrlPatterns("/internal/*");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.cluster", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public WalletPartitioning walletPartitioning() {
+        return WalletPartitioning.singleNode();
+    }
+}
@@ -0,0 +1,34 @@
+package com.gurnek.wallet.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "wallet.cluster")
+public record ClusterProperties(
+        @DefaultValue("false")
+        boolean enabled,
+        String nodeId,
+        Map<String, URI> nodes,
+        String secret,
+        @DefaultValue("128")
+        int virtualNodes,
+        @DefaultValue("1000")
+        long idBlockSize,
+        @DefaultValue("5s")
+        Duration requestTimeout,
+        @DefaultValue("PT10S")
+        Duration sagaRetryInterval,
+        @DefaultValue("30s")
+        Duration sagaRetryAfter
+) {
+    public ClusterProperties {
+        nodes = nodes == null ? Map.of() : Map.copyOf(nodes);
+        if (enabled && (secret == null || secret.isBlank())) {
+            throw new IllegalStateException("wallet.cluster.secret must be set");
+        }
+    }
+}
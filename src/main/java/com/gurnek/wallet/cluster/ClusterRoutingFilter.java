@@ -0,0 +1,191 @@
+package com.gurnek.wallet.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends each wallet-scoped API request to the node that owns the wallet: {@code /wallets/{id}/**} by path,
+ * {@code GET /transfers/{id}} by transfer id and {@code POST /transfers} by the body's {@code fromWalletId}.
+ * Anything else, such as user creation, is served locally. A forwarded request carries
+ * {@value #FORWARDED_BY_HEADER}; receiving one for a wallet this node does not own means the nodes disagree on
+ * membership, and it is answered with 421 rather than forwarded again.
+ */
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    static final String FORWARDED_BY_HEADER = "X-Wallet-Forwarded-By";
+    private static final int MISDIRECTED_REQUEST = 421;
+    private static final Logger log = LoggerFactory.getLogger(ClusterRoutingFilter.class);
+    private static final Pattern WALLET_PATH = Pattern.compile("^/api/v1/wallets/(\\d{1,18})(/.*)?$");
+    private static final Pattern TRANSFER_PATH = Pattern.compile("^/api/v1/transfers/(\\d{1,18})$");
+    private static final String TRANSFERS_PATH = "/api/v1/transfers";
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, "X-Idempotency-Key");
+
+    private final WalletRouter router;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    public ClusterRoutingFilter(WalletRouter router, ObjectMapper objectMapper, Duration requestTimeout) {
+        this.router = router;
+        this.objectMapper = objectMapper;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        HttpServletRequest routed = request;
+        byte[] body = null;
+        Long routingId = null;
+        Matcher wallet = WALLET_PATH.matcher(path);
+        Matcher transfer = TRANSFER_PATH.matcher(path);
+        if (wallet.matches()) {
+            routingId = Long.parseLong(wallet.group(1));
+        } else if (transfer.matches() && "GET".equals(request.getMethod())) {
+            routingId = Long.parseLong(transfer.group(1));
+        } else if (TRANSFERS_PATH.equals(path) && "POST".equals(request.getMethod())) {
+            body = request.getInputStream().readAllBytes();
+            routed = new CachedBodyRequest(request, body);
+            routingId = fromWalletId(body);
+        }
+
+        String owner = routingId == null ? null : router.ownerOf(routingId);
+        if (owner == null || owner.equals(router.nodeId())) {
+            chain.doFilter(routed, response);
+            return;
+        }
+        String forwardedBy = request.getHeader(FORWARDED_BY_HEADER);
+        if (forwardedBy != null) {
+            log.warn("Rejecting request forwarded by node={} for id={} owned by node={}", forwardedBy, routingId, owner);
+            writeError(response, MISDIRECTED_REQUEST, "node " + router.nodeId() + " does not own id " + routingId);
+            return;
+        }
+        forward(routed, body == null ? request.getInputStream().readAllBytes() : body, path, owner, response);
+    }
+
+    private void forward(HttpServletRequest request, byte[] body, String path, String owner,
+                         HttpServletResponse response) throws IOException {
+        String query = request.getQueryString();
+        URI target = router.baseUrlOf(owner).resolve(path + (query == null ? "" : "?" + query));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target)
+                .timeout(requestTimeout)
+                .header(FORWARDED_BY_HEADER, router.nodeId())
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String header : FORWARDED_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                builder.header(header, value);
+            }
+        }
+        log.debug("Forwarding {} {} to node={}", request.getMethod(), path, owner);
+        HttpResponse<byte[]> forwarded;
+        try {
+            forwarded = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException ex) {
+            log.warn("Forwarding {} {} to node={} failed: {}", request.getMethod(), path, owner, ex.toString());
+            writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "owning node " + owner + " is unavailable");
+            return;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "interrupted while forwarding to node " + owner);
+            return;
+        }
+        response.setStatus(forwarded.statusCode());
+        forwarded.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(response::setContentType);
+        response.getOutputStream().write(forwarded.body());
+    }
+
+    private Long fromWalletId(byte[] body) {
+        try {
+            JsonNode fromWalletId = objectMapper.readTree(body).path("fromWalletId");
+            return fromWalletId.canConvertToLong() ? fromWalletId.longValue() : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now());
+        body.put("status", status);
+        body.put("error", message);
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
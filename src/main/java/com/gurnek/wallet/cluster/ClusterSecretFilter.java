@@ -0,0 +1,56 @@
+package com.gurnek.wallet.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Guards the node-to-node routes under {@code /internal/*}: a request must carry the shared
+ * {@code wallet.cluster.secret} in {@value #SECRET_HEADER}, otherwise it is answered with 401 before it reaches a
+ * controller. The comparison is constant-time so the secret cannot be guessed byte by byte.
+ */
+public class ClusterSecretFilter extends OncePerRequestFilter {
+
+    static final String SECRET_HEADER = "X-Wallet-Cluster-Secret";
+    private static final Logger log = LoggerFactory.getLogger(ClusterSecretFilter.class);
+
+    private final byte[] secret;
+    private final ObjectMapper objectMapper;
+
+    public ClusterSecretFilter(String secret, ObjectMapper objectMapper) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String presented = request.getHeader(SECRET_HEADER);
+        if (presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        log.warn("Rejecting internal request {} {} from {} without a valid cluster secret",
+                request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now());
+        body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
+        body.put("error", "missing or invalid cluster secret");
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
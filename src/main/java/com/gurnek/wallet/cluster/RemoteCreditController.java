@@ -0,0 +1,34 @@
+package com.gurnek.wallet.cluster;
+
+import com.gurnek.wallet.api.dto.TransferResponse;
+import com.gurnek.wallet.service.WalletService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Node-to-node endpoint for the credit leg of a cross-partition transfer; not routed by {@link ClusterRoutingFilter}
+ * and only reachable with the shared cluster secret checked by {@link ClusterSecretFilter}.
+ */
+@RestController
+@RequestMapping(RemoteCreditController.PATH)
+@ConditionalOnProperty(prefix = "wallet.cluster", name = "enabled", havingValue = "true")
+public class RemoteCreditController {
+
+    static final String PATH = "/internal/v1/credits";
+    private final WalletService walletService;
+
+    public RemoteCreditController(WalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    @PostMapping
+    public TransferResponse credit(@Valid @RequestBody RemoteCreditRequest request) {
+        return walletService.creditRemoteTransfer(
+                request.fromWalletId(), request.toWalletId(), request.amount(), request.currency(),
+                request.idempotencyKey());
+    }
+}
@@ -0,0 +1,23 @@
+package com.gurnek.wallet.cluster;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.math.BigDecimal;
+
+public record RemoteCreditRequest(
+        @NotNull(message = "fromWalletId is required")
+        Long fromWalletId,
+        @NotNull(message = "toWalletId is required")
+        Long toWalletId,
+        @NotNull(message = "amount is required")
+        @DecimalMin(value = "0.01", message = "amount must be greater than 0")
+        BigDecimal amount,
+        @Pattern(regexp = "[A-Z]{3}", message = "currency must be a 3-letter ISO 4217 code")
+        String currency,
+        @NotBlank(message = "idempotencyKey is required")
+        String idempotencyKey
+) {
+}
@@ -0,0 +1,132 @@
+package com.gurnek.wallet.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gurnek.wallet.api.dto.TransferResponse;
+import com.gurnek.wallet.domain.TransferStatus;
+import com.gurnek.wallet.service.BusinessException;
+import com.gurnek.wallet.service.IdempotencyKeys;
+import com.gurnek.wallet.service.NotFoundException;
+import com.gurnek.wallet.service.WalletService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+
+/**
+ * Drives cross-partition transfers after the source node has committed the debit as
+ * {@link TransferStatus#DEBIT_HELD}: credit the destination node, then confirm as {@link TransferStatus#SUCCESS}.
+ * If the destination rejects the credit, the debit is returned and the transfer ends as
+ * {@link TransferStatus#COMPENSATED}. If it cannot be reached, the transfer stays held and
+ * {@link #retryHeldTransfers()} tries again later. The credit is idempotent on a key derived from the source
+ * transfer, so retries never credit twice.
+ */
+public class TransferSaga {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferSaga.class);
+
+    private final WalletService walletService;
+    private final WalletRouter router;
+    private final ClusterProperties properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public TransferSaga(WalletService walletService, WalletRouter router, ClusterProperties properties,
+                        ObjectMapper objectMapper) {
+        this.walletService = walletService;
+        this.router = router;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.requestTimeout())
+                .build();
+    }
+
+    /**
+     * Advances a transfer returned by {@link WalletService#transfer} and reports a rejected credit the way a
+     * single-node transfer would have: as {@link NotFoundException} or {@link BusinessException}.
+     */
+    public TransferResponse complete(TransferResponse transfer) {
+        if (transfer.status() != TransferStatus.DEBIT_HELD) {
+            return transfer;
+        }
+        CreditResult result = credit(transfer);
+        if (result.status() >= 200 && result.status() < 300) {
+            return walletService.confirmRemoteTransfer(transfer.transferId());
+        }
+        if (result.status() == 404 || result.status() == 400) {
+            walletService.compensateRemoteTransfer(transfer.transferId());
+            throw result.status() == 404 ? new NotFoundException(result.error()) : new BusinessException(result.error());
+        }
+        return transfer;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.cluster.saga-retry-interval:PT10S}")
+    public void retryHeldTransfers() {
+        for (TransferResponse transfer : walletService.findHeldRemoteTransfers(Instant.now().minus(properties.sagaRetryAfter()))) {
+            try {
+                complete(transfer);
+            } catch (NotFoundException | BusinessException ex) {
+                log.info("Held transfer compensated on retry transferId={} reason={}", transfer.transferId(), ex.getMessage());
+            } catch (RuntimeException ex) {
+                log.warn("Retry of held transfer failed transferId={}", transfer.transferId(), ex);
+            }
+        }
+    }
+
+    private CreditResult credit(TransferResponse transfer) {
+        String owner = router.ownerOf(transfer.toWalletId());
+        RemoteCreditRequest request = new RemoteCreditRequest(transfer.fromWalletId(), transfer.toWalletId(),
+                transfer.amount(), walletService.getWallet(transfer.fromWalletId()).currency(),
+                IdempotencyKeys.remoteCredit(router.nodeId(), transfer.transferId()));
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+                                    router.baseUrlOf(owner).resolve(RemoteCreditController.PATH))
+                            .timeout(properties.requestTimeout())
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header(ClusterSecretFilter.SECRET_HEADER, properties.secret())
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() < 300) {
+                return new CreditResult(response.statusCode(), null);
+            }
+            String error = errorOf(response);
+            log.warn("Remote credit rejected transferId={} node={} status={} error={}",
+                    transfer.transferId(), owner, response.statusCode(), error);
+            return new CreditResult(response.statusCode(), error);
+        } catch (IOException ex) {
+            log.warn("Remote credit pending transferId={} node={} unreachable: {}", transfer.transferId(), owner, ex.toString());
+            return new CreditResult(503, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new CreditResult(503, "interrupted");
+        }
+    }
+
+    private String errorOf(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body()).path("error").asText("HTTP " + response.statusCode());
+        } catch (JsonProcessingException ex) {
+            return "HTTP " + response.statusCode();
+        }
+    }
+
+    private record CreditResult(int status, String error) {
+    }
+}
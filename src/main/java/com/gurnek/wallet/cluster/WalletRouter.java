@@ -0,0 +1,75 @@
+package com.gurnek.wallet.cluster;
+
+import com.gurnek.wallet.service.WalletPartitioning;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+
+/**
+ * Maps wallet and transfer ids to their owning node. Ids are grouped into blocks of {@code idBlockSize}
+ * consecutive values and each block is placed on the {@link ConsistentHashRing}, so a node allocates new ids
+ * only from blocks it owns and any node can route an id without a lookup.
+ */
+public class WalletRouter implements WalletPartitioning {
+
+    private final ClusterProperties properties;
+    private final ConsistentHashRing ring;
+    private final BlockIdAllocator walletIds;
+    private final BlockIdAllocator transferIds;
+
+    public WalletRouter(ClusterProperties properties, JdbcTemplate jdbcTemplate) {
+        if (properties.nodeId() == null || !properties.nodes().containsKey(properties.nodeId())) {
+            throw new IllegalStateException("wallet.cluster.node-id must be one of wallet.cluster.nodes");
+        }
+        if (properties.idBlockSize() < 1) {
+            throw new IllegalStateException("wallet.cluster.id-block-size must be positive");
+        }
+        this.properties = properties;
+        this.ring = new ConsistentHashRing(properties.nodes().keySet(), properties.virtualNodes());
+        this.walletIds = new BlockIdAllocator("wallet", this, jdbcTemplate);
+        this.transferIds = new BlockIdAllocator("transfer_transaction", this, jdbcTemplate);
+    }
+
+    public String nodeId() {
+        return properties.nodeId();
+    }
+
+    public String ownerOf(long id) {
+        return ring.ownerOf(blockOf(id));
+    }
+
+    public boolean isLocal(long id) {
+        return properties.nodeId().equals(ownerOf(id));
+    }
+
+    public URI baseUrlOf(String nodeId) {
+        return properties.nodes().get(nodeId);
+    }
+
+    long blockSize() {
+        return properties.idBlockSize();
+    }
+
+    boolean ownsBlock(long block) {
+        return properties.nodeId().equals(ring.ownerOf(block));
+    }
+
+    @Override
+    public boolean isRemote(Long walletId) {
+        return !isLocal(walletId);
+    }
+
+    @Override
+    public Long assignWalletId() {
+        return walletIds.next();
+    }
+
+    @Override
+    public Long assignTransferId() {
+        return transferIds.next();
+    }
+
+    private long blockOf(long id) {
+        return Math.floorDiv(id, properties.idBlockSize());
+    }
+}
@@ -0,0 +1,53 @@
+package com.gurnek.wallet.domain;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.mapping.Column;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Uses the database identity column unless the entity already carries an id, in which case that id is inserted.
+ */
+public class AssignableIdentityGenerator extends IdentityGenerator
+        implements BeforeExecutionGenerator, AnnotationBasedGenerator<AssignableIdentity> {
+
+    @Override
+    public void initialize(AssignableIdentity annotation, Member member, GeneratorCreationContext context) {
+        // Hibernate only marks the column as identity for its built-in generator, so schema generation needs this.
+        for (Column column : context.getProperty().getValue().getColumns()) {
+            column.setIdentity(true);
+        }
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return true;
+    }
+
+    @Override
+    public boolean generatedOnExecution(Object entity, SharedSessionContractImplementor session) {
+        return session.getEntityPersister(null, entity).getIdentifier(entity, session) == null;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return session.getEntityPersister(null, owner).getIdentifier(owner, session);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+}
@@ -0,0 +1,8 @@
+package com.gurnek.wallet.domain;
+
+public enum HoldStatus {
+    AUTHORIZED,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,7 @@
+package com.gurnek.wallet.domain;
+
+public enum ScheduleStatus {
+    ACTIVE,
+    COMPLETED,
+    CANCELLED
+}
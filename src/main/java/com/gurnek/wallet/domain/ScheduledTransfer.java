@@ -0,0 +1,216 @@
+package com.gurnek.wallet.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A future-dated or recurring transfer. Due schedules are found through {@code idx_schedule_due}, so a poll
+ * only reads rows whose {@code next_run_at} has passed; an instance claims a batch by writing its
+ * {@code leaseToken} with a conditional update.
+ */
+@Entity
+@Table(name = "scheduled_transfer", indexes = {
+        @Index(name = "idx_schedule_due", columnList = "status, next_run_at"),
+        @Index(name = "idx_schedule_from_wallet", columnList = "from_wallet_id"),
+        @Index(name = "idx_schedule_lease_token", columnList = "lease_token")
+})
+public class ScheduledTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long fromWalletId;
+
+    @Column(nullable = false)
+    private Long toWalletId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private TransferRecurrence recurrence;
+
+    @Column(nullable = false)
+    private Instant startAt;
+
+    private Instant endAt;
+
+    private Integer maxOccurrences;
+
+    /**
+     * Zero-based index of the next occurrence to run; also the number of occurrences already run.
+     */
+    @Column(nullable = false)
+    private long occurrence;
+
+    @Column(nullable = false)
+    private Instant nextRunAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ScheduleStatus status;
+
+    @Column(nullable = false, unique = true, updatable = false)
+    private String idempotencyKey;
+
+    @Column(length = 36)
+    private String leaseToken;
+
+    private Instant leaseUntil;
+
+    private Long lastTransferId;
+
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getFromWalletId() {
+        return fromWalletId;
+    }
+
+    public void setFromWalletId(Long fromWalletId) {
+        this.fromWalletId = fromWalletId;
+    }
+
+    public Long getToWalletId() {
+        return toWalletId;
+    }
+
+    public void setToWalletId(Long toWalletId) {
+        this.toWalletId = toWalletId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public TransferRecurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(TransferRecurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public Instant getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(Instant startAt) {
+        this.startAt = startAt;
+    }
+
+    public Instant getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(Instant endAt) {
+        this.endAt = endAt;
+    }
+
+    public Integer getMaxOccurrences() {
+        return maxOccurrences;
+    }
+
+    public void setMaxOccurrences(Integer maxOccurrences) {
+        this.maxOccurrences = maxOccurrences;
+    }
+
+    public long getOccurrence() {
+        return occurrence;
+    }
+
+    public void setOccurrence(long occurrence) {
+        this.occurrence = occurrence;
+    }
+
+    public Instant getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(Instant nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public ScheduleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ScheduleStatus status) {
+        this.status = status;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getLeaseToken() {
+        return leaseToken;
+    }
+
+    public void setLeaseToken(String leaseToken) {
+        this.leaseToken = leaseToken;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(Instant leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public Long getLastTransferId() {
+        return lastTransferId;
+    }
+
+    public void setLastTransferId(Long lastTransferId) {
+        this.lastTransferId = lastTransferId;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.gurnek.wallet.domain;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+public enum TransferRecurrence {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * Due time of the zero-based {@code occurrence}, computed from the schedule's first run rather than the
+     * previous occurrence so monthly schedules anchored on the 31st do not drift to the 28th.
+     */
+    public Instant occurrenceAt(Instant startAt, long occurrence) {
+        ZonedDateTime start = startAt.atZone(ZoneOffset.UTC);
+        return switch (this) {
+            case ONCE -> startAt;
+            case DAILY -> start.plusDays(occurrence).toInstant();
+            case WEEKLY -> start.plusWeeks(occurrence).toInstant();
+            case MONTHLY -> start.plusMonths(occurrence).toInstant();
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package com.gurnek.wallet.domain;
 
 public enum TransferStatus {
-    SUCCESS
+    SUCCESS,
+    DEBIT_HELD,
+    CREDITED,
+    COMPENSATED
 }
@@ -4,9 +4,8 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
@@ -14,11 +13,15 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "transfer_transaction")
+@Table(name = "transfer_transaction", indexes = {
+        @Index(name = "idx_transfer_from_wallet", columnList = "from_wallet_id"),
+        @Index(name = "idx_transfer_to_wallet", columnList = "to_wallet_id"),
+        @Index(name = "idx_transfer_created_at", columnList = "created_at")
+})
 public class TransferTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableIdentity
     private Long id;
 
     @Column(nullable = false)
@@ -30,6 +33,17 @@ public class TransferTransaction {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal amount;
 
+    /**
+     * Amount credited in the destination wallet's currency; {@code null} when no conversion took place.
+     */
+    @Column(precision = 19, scale = 2)
+    private BigDecimal creditedAmount;
+
+    @Column(precision = 19, scale = 8)
+    private BigDecimal fxRate;
+
+    private Long fxRateVersion;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TransferStatus status;
@@ -51,6 +65,10 @@ public class TransferTransaction {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Long getFromWalletId() {
         return fromWalletId;
     }
@@ -75,6 +93,30 @@ public class TransferTransaction {
         this.amount = amount;
     }
 
+    public BigDecimal getCreditedAmount() {
+        return creditedAmount;
+    }
+
+    public void setCreditedAmount(BigDecimal creditedAmount) {
+        this.creditedAmount = creditedAmount;
+    }
+
+    public BigDecimal getFxRate() {
+        return fxRate;
+    }
+
+    public void setFxRate(BigDecimal fxRate) {
+        this.fxRate = fxRate;
+    }
+
+    public Long getFxRateVersion() {
+        return fxRateVersion;
+    }
+
+    public void setFxRateVersion(Long fxRateVersion) {
+        this.fxRateVersion = fxRateVersion;
+    }
+
     public TransferStatus getStatus() {
         return status;
     }
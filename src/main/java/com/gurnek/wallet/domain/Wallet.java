@@ -2,9 +2,9 @@ package com.gurnek.wallet.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
@@ -17,8 +17,10 @@ import java.math.BigDecimal;
 @Table(name = "wallet")
 public class Wallet {
 
+    public static final String DEFAULT_CURRENCY = "USD";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableIdentity
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY, optional = false)
@@ -28,6 +30,16 @@ public class Wallet {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance = BigDecimal.ZERO;
 
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal heldBalance = BigDecimal.ZERO;
+
+    @Column(nullable = false, length = 3)
+    private String currency = DEFAULT_CURRENCY;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private WalletTier tier = WalletTier.STANDARD;
+
     @Version
     private Long version;
 
@@ -35,6 +47,10 @@ public class Wallet {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public UserAccount getUserAccount() {
         return userAccount;
     }
@@ -51,6 +67,34 @@ public class Wallet {
         this.balance = balance;
     }
 
+    public BigDecimal getHeldBalance() {
+        return heldBalance;
+    }
+
+    public void setHeldBalance(BigDecimal heldBalance) {
+        this.heldBalance = heldBalance;
+    }
+
+    public BigDecimal getAvailableBalance() {
+        return balance.subtract(heldBalance);
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public WalletTier getTier() {
+        return tier;
+    }
+
+    public void setTier(WalletTier tier) {
+        this.tier = tier;
+    }
+
     public Long getVersion() {
         return version;
     }
@@ -0,0 +1,7 @@
+package com.gurnek.wallet.domain;
+
+public enum WalletTier {
+    STANDARD,
+    PREMIUM,
+    BUSINESS
+}
@@ -0,0 +1,24 @@
+package com.gurnek.wallet.fx;
+
+import com.gurnek.wallet.service.FxRateProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(FxProperties.class)
+public class FxConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.fx", name = "enabled", havingValue = "true")
+    public SnapshotFxRateProvider snapshotFxRateProvider(FxProperties properties) {
+        return new SnapshotFxRateProvider(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.fx", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public FxRateProvider fxRateProvider() {
+        return FxRateProvider.sameCurrencyOnly();
+    }
+}
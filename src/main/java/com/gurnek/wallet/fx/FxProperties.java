@@ -0,0 +1,29 @@
+package com.gurnek.wallet.fx;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Rates are quoted as units of {@code baseCurrency} per one unit of the keyed currency. {@code ratesFile}, when
+ * set, takes precedence over the inline {@code rates} and is re-read every {@code refreshInterval}.
+ */
+@ConfigurationProperties(prefix = "wallet.fx")
+public record FxProperties(
+        @DefaultValue("false")
+        boolean enabled,
+        @DefaultValue("USD")
+        String baseCurrency,
+        Path ratesFile,
+        Map<String, BigDecimal> rates,
+        @DefaultValue("PT1M")
+        Duration refreshInterval
+) {
+    public FxProperties {
+        rates = rates == null ? Map.of() : Map.copyOf(rates);
+    }
+}
@@ -0,0 +1,127 @@
+package com.gurnek.wallet.fx;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable table of cross rates between every pair of configured currencies. Rates are fixed-point longs
+ * with {@link #RATE_SCALE} decimals, precomputed when the snapshot is built so a lookup is two map reads and
+ * an array index and a conversion is integer arithmetic on minor units.
+ */
+public final class FxRateSnapshot {
+
+    public static final int RATE_SCALE = 8;
+    static final String VERSION_KEY = "version";
+    private static final long RATE_ONE = 100_000_000L;
+    private static final BigInteger RATE_ONE_BIG = BigInteger.valueOf(RATE_ONE);
+
+    private final long version;
+    private final Instant loadedAt;
+    private final Map<String, Integer> index;
+    private final long[] crossRates;
+
+    private FxRateSnapshot(long version, Map<String, Integer> index, long[] crossRates) {
+        this.version = version;
+        this.loadedAt = Instant.now();
+        this.index = index;
+        this.crossRates = crossRates;
+    }
+
+    /**
+     * @param ratesToBase units of {@code baseCurrency} per one unit of each currency; the base itself is implied
+     */
+    public static FxRateSnapshot of(long version, String baseCurrency, Map<String, BigDecimal> ratesToBase) {
+        Map<String, BigDecimal> rates = new HashMap<>(ratesToBase);
+        rates.put(baseCurrency, BigDecimal.ONE);
+        String[] currencies = rates.keySet().stream().sorted().toArray(String[]::new);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < currencies.length; i++) {
+            if (rates.get(currencies[i]).signum() <= 0) {
+                throw new IllegalArgumentException("FX rate for " + currencies[i] + " must be positive");
+            }
+            index.put(currencies[i], i);
+        }
+        long[] crossRates = new long[currencies.length * currencies.length];
+        for (int from = 0; from < currencies.length; from++) {
+            for (int to = 0; to < currencies.length; to++) {
+                crossRates[from * currencies.length + to] = rates.get(currencies[from])
+                        .divide(rates.get(currencies[to]), RATE_SCALE, RoundingMode.HALF_UP)
+                        .unscaledValue()
+                        .longValueExact();
+            }
+        }
+        return new FxRateSnapshot(version, Map.copyOf(index), crossRates);
+    }
+
+    /**
+     * Reads a properties file of {@code CURRENCY=rate} lines plus an optional {@code version} entry; without
+     * one, the file's modification time is used as the version.
+     */
+    public static FxRateSnapshot load(Path file, String baseCurrency) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        long version = properties.containsKey(VERSION_KEY)
+                ? Long.parseLong(properties.getProperty(VERSION_KEY).trim())
+                : Files.getLastModifiedTime(file).toMillis();
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String currency : properties.stringPropertyNames()) {
+            if (!currency.equals(VERSION_KEY)) {
+                rates.put(currency.trim(), new BigDecimal(properties.getProperty(currency).trim()));
+            }
+        }
+        return of(version, baseCurrency, rates);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public boolean supports(String currency) {
+        return index.containsKey(currency);
+    }
+
+    /**
+     * @return the scaled {@code from -> to} rate, or {@code -1} when either currency is unknown
+     */
+    public long rate(String fromCurrency, String toCurrency) {
+        Integer from = index.get(fromCurrency);
+        Integer to = index.get(toCurrency);
+        if (from == null || to == null) {
+            return -1;
+        }
+        return crossRates[from * index.size() + to];
+    }
+
+    /**
+     * Multiplies {@code minorUnits} by a scaled rate, rounding half up. Falls back to {@link BigInteger} only
+     * when the 128-bit product does not fit in a long.
+     */
+    public static long convertMinorUnits(long minorUnits, long scaledRate) {
+        long high = Math.multiplyHigh(minorUnits, scaledRate);
+        long low = minorUnits * scaledRate;
+        if (high == 0 && low >= 0 && low <= Long.MAX_VALUE - RATE_ONE / 2) {
+            return (low + RATE_ONE / 2) / RATE_ONE;
+        }
+        return BigInteger.valueOf(minorUnits)
+                .multiply(BigInteger.valueOf(scaledRate))
+                .add(RATE_ONE_BIG.shiftRight(1))
+                .divide(RATE_ONE_BIG)
+                .longValueExact();
+    }
+}
@@ -0,0 +1,89 @@
+package com.gurnek.wallet.fx;
+
+import com.gurnek.wallet.service.BusinessException;
+import com.gurnek.wallet.service.FxConversion;
+import com.gurnek.wallet.service.FxRateProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Converts against the current {@link FxRateSnapshot}. Readers take one volatile read of the snapshot and never
+ * block; {@link #refresh()} builds a complete replacement off to the side and swaps it in, so a transfer never
+ * sees a half-loaded table. A failed refresh keeps the previous snapshot.
+ */
+public class SnapshotFxRateProvider implements FxRateProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotFxRateProvider.class);
+
+    private final FxProperties properties;
+    private final AtomicReference<FxRateSnapshot> snapshot = new AtomicReference<>();
+
+    public SnapshotFxRateProvider(FxProperties properties) {
+        this.properties = properties;
+        this.snapshot.set(load());
+        log.info("FX rates loaded version={} source={}", snapshot.get().version(), source());
+    }
+
+    public FxRateSnapshot current() {
+        return snapshot.get();
+    }
+
+    @Override
+    public boolean supports(String currency) {
+        return snapshot.get().supports(currency);
+    }
+
+    @Override
+    public FxConversion convert(String fromCurrency, String toCurrency, BigDecimal amount) {
+        FxRateSnapshot rates = snapshot.get();
+        long rate = rates.rate(fromCurrency, toCurrency);
+        if (rate < 0) {
+            throw new BusinessException("no FX rate for " + fromCurrency + "->" + toCurrency);
+        }
+        long minorUnits = amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        long credited = FxRateSnapshot.convertMinorUnits(minorUnits, rate);
+        if (credited <= 0) {
+            throw new BusinessException("amount is too small to convert from " + fromCurrency + " to " + toCurrency);
+        }
+        return new FxConversion(BigDecimal.valueOf(credited, 2), BigDecimal.valueOf(rate, FxRateSnapshot.RATE_SCALE),
+                rates.version());
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.fx.refresh-interval:PT1M}")
+    public void refresh() {
+        if (properties.ratesFile() == null) {
+            return;
+        }
+        try {
+            FxRateSnapshot next = load();
+            FxRateSnapshot previous = snapshot.get();
+            if (next.version() != previous.version()) {
+                snapshot.set(next);
+                log.info("FX rates refreshed version={} previousVersion={}", next.version(), previous.version());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("FX rate refresh failed, keeping version={}", snapshot.get().version(), ex);
+        }
+    }
+
+    private FxRateSnapshot load() {
+        if (properties.ratesFile() == null) {
+            return FxRateSnapshot.of(1L, properties.baseCurrency(), properties.rates());
+        }
+        try {
+            return FxRateSnapshot.load(properties.ratesFile(), properties.baseCurrency());
+        } catch (IOException ex) {
+            throw new IllegalStateException("could not read FX rates from " + properties.ratesFile(), ex);
+        }
+    }
+
+    private String source() {
+        return properties.ratesFile() == null ? "wallet.fx.rates" : properties.ratesFile().toString();
+    }
+}
@@ -0,0 +1,10 @@
+package com.gurnek.wallet.journal;
+
+public enum FsyncPolicy {
+    /** Force every record to disk before the append returns. */
+    PER_RECORD,
+    /** Concurrent appenders share one force; each append returns once its record is on disk. */
+    GROUP,
+    /** A background task forces the active segment on a fixed interval; appends never wait. */
+    INTERVAL
+}
@@ -0,0 +1,42 @@
+package com.gurnek.wallet.journal;
+
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Offline compaction tool: replays a journal directory, writes a fresh snapshot and deletes the sealed
+ * segments it covers. Run it only while the service that owns the directory is stopped; a running
+ * service can compact itself through {@link MappedTransferJournal#compact()}.
+ * <p>
+ * The segment size must match the {@code wallet.journal.segment-size} the service runs with. It is taken from the
+ * optional second argument, then the {@value #SEGMENT_SIZE_PROPERTY} system property, and defaults to 64MB.
+ */
+public final class JournalCompactor {
+
+    static final String SEGMENT_SIZE_PROPERTY = "wallet.journal.segment-size";
+    private static final String DEFAULT_SEGMENT_SIZE = "64MB";
+
+    private JournalCompactor() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage: JournalCompactor <journal-directory> [segment-size, e.g. 64MB]");
+            System.exit(2);
+        }
+        String segmentSize = args.length == 2
+                ? args[1]
+                : System.getProperty(SEGMENT_SIZE_PROPERTY, DEFAULT_SEGMENT_SIZE);
+        compact(Path.of(args[0]), Math.toIntExact(DataSize.parse(segmentSize).toBytes()));
+    }
+
+    public static void compact(Path directory, int segmentSize) throws IOException {
+        try (MappedTransferJournal journal = MappedTransferJournal.open(
+                directory, segmentSize, FsyncPolicy.PER_RECORD, Duration.ZERO)) {
+            journal.compact();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.gurnek.wallet.journal;
+
+import com.gurnek.wallet.service.TransferJournal;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+public class JournalConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.journal", name = "enabled", havingValue = "true")
+    public MappedTransferJournal mappedTransferJournal(JournalProperties properties) throws IOException {
+        return MappedTransferJournal.open(
+                properties.directory(),
+                Math.toIntExact(properties.segmentSize().toBytes()),
+                properties.fsyncPolicy(),
+                properties.fsyncInterval());
+    }
+
+    /**
+     * Reports wallets whose replayed journal balance differs from the database once the schema is ready and
+     * before the web server accepts traffic.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.journal", name = "enabled", havingValue = "true")
+    public SmartInitializingSingleton journalBalanceCheck(MappedTransferJournal journal, JdbcTemplate jdbcTemplate) {
+        return () -> journal.checkBalances(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.journal", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public TransferJournal transferJournal() {
+        return TransferJournal.noop();
+    }
+}
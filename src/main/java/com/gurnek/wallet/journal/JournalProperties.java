@@ -0,0 +1,23 @@
+package com.gurnek.wallet.journal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "wallet.journal")
+public record JournalProperties(
+        @DefaultValue("false")
+        boolean enabled,
+        @DefaultValue("./data/journal")
+        Path directory,
+        @DefaultValue("64MB")
+        DataSize segmentSize,
+        @DefaultValue("GROUP")
+        FsyncPolicy fsyncPolicy,
+        @DefaultValue("10ms")
+        Duration fsyncInterval
+) {
+}
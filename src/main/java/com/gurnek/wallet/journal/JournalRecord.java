@@ -0,0 +1,74 @@
+package com.gurnek.wallet.journal;
+
+import java.util.Map;
+
+/**
+ * One journal entry. Amounts are in minor units (cents); deposits leave {@code fromWalletId} at 0 and
+ * withdrawals leave {@code toWalletId} at 0. A cross-currency transfer is journaled as a withdrawal and a
+ * deposit sharing one idempotency key.
+ * <p>
+ * An entry written inside a database transaction carries the {@link #PENDING} flag and only counts once a
+ * {@link #COMMIT} marker naming its sequence follows it. Reversal records come from journals written before commit
+ * markers existed, when a rolled-back entry was undone by appending its reversal.
+ */
+public record JournalRecord(
+        long sequence,
+        byte type,
+        long fromWalletId,
+        long toWalletId,
+        long amountMinorUnits,
+        String idempotencyKey
+) {
+    public static final byte DEPOSIT = 1;
+    public static final byte TRANSFER = 2;
+    public static final byte DEPOSIT_REVERSAL = 3;
+    public static final byte TRANSFER_REVERSAL = 4;
+    public static final byte WITHDRAWAL = 5;
+    public static final byte WITHDRAWAL_REVERSAL = 6;
+    /** Marks the entry whose sequence is in {@code amountMinorUnits} as committed. */
+    public static final byte COMMIT = 7;
+    /** Flag on an entry's type while its database transaction has not been confirmed by a {@link #COMMIT}. */
+    public static final byte PENDING = 0x40;
+
+    static JournalRecord commitOf(long sequence, JournalRecord pending) {
+        return new JournalRecord(sequence, COMMIT, 0L, 0L, pending.sequence(), null);
+    }
+
+    JournalRecord pending() {
+        return new JournalRecord(sequence, (byte) (type | PENDING), fromWalletId, toWalletId, amountMinorUnits,
+                idempotencyKey);
+    }
+
+    boolean isPending() {
+        return (type & PENDING) != 0;
+    }
+
+    boolean isCommit() {
+        return type == COMMIT;
+    }
+
+    /**
+     * @return sequence of the entry a {@link #COMMIT} marker confirms
+     */
+    long committedSequence() {
+        return amountMinorUnits;
+    }
+
+    void applyTo(Map<Long, Long> balances) {
+        switch ((byte) (type & ~PENDING)) {
+            case DEPOSIT -> balances.merge(toWalletId, amountMinorUnits, Long::sum);
+            case DEPOSIT_REVERSAL -> balances.merge(toWalletId, -amountMinorUnits, Long::sum);
+            case WITHDRAWAL -> balances.merge(fromWalletId, -amountMinorUnits, Long::sum);
+            case WITHDRAWAL_REVERSAL -> balances.merge(fromWalletId, amountMinorUnits, Long::sum);
+            case TRANSFER -> {
+                balances.merge(fromWalletId, -amountMinorUnits, Long::sum);
+                balances.merge(toWalletId, amountMinorUnits, Long::sum);
+            }
+            case TRANSFER_REVERSAL -> {
+                balances.merge(fromWalletId, amountMinorUnits, Long::sum);
+                balances.merge(toWalletId, -amountMinorUnits, Long::sum);
+            }
+            default -> throw new IllegalStateException("unknown journal record type " + type);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.gurnek.wallet.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * A fixed-size, memory-mapped journal file. Records are framed as
+ * {@code [int payloadLength][int crc32(payload)][payload]}; a zero length marks the end of written data
+ * and a CRC mismatch marks a torn write, which {@link #open} discards.
+ */
+final class JournalSegment implements Closeable {
+
+    static final String FILE_PREFIX = "segment-";
+    static final String FILE_SUFFIX = ".log";
+    private static final int FRAME_HEADER = 2 * Integer.BYTES;
+    private static final int FIXED_PAYLOAD = Long.BYTES + 1 + 3 * Long.BYTES + Short.BYTES;
+
+    private final Path path;
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private volatile int position;
+    private int flushed;
+    private long lastSequence;
+
+    private JournalSegment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    static Path fileName(Path directory, long firstSequence) {
+        return directory.resolve(FILE_PREFIX + String.format("%020d", firstSequence) + FILE_SUFFIX);
+    }
+
+    static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    /**
+     * Maps the segment, creating it with {@code size} bytes if missing, and positions the write cursor
+     * after the last intact record. Each intact record is passed to {@code consumer}.
+     */
+    static JournalSegment open(Path path, int size, Consumer<JournalRecord> consumer) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long mappedSize = Math.max(channel.size(), size);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+        JournalSegment segment = new JournalSegment(path, firstSequenceOf(path), channel, buffer);
+        segment.recover(consumer);
+        return segment;
+    }
+
+    static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path path = fileName(directory, firstSequence);
+        Files.deleteIfExists(path);
+        return open(path, size, record -> {
+        });
+    }
+
+    boolean tryAppend(JournalRecord record) {
+        byte[] key = record.idempotencyKey() == null
+                ? new byte[0]
+                : record.idempotencyKey().getBytes(StandardCharsets.UTF_8);
+        int payloadLength = FIXED_PAYLOAD + key.length;
+        int start = position;
+        if (start + FRAME_HEADER + payloadLength > buffer.capacity()) {
+            return false;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        payload.putLong(record.sequence());
+        payload.put(record.type());
+        payload.putLong(record.fromWalletId());
+        payload.putLong(record.toWalletId());
+        payload.putLong(record.amountMinorUnits());
+        payload.putShort((short) key.length);
+        payload.put(key);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        buffer.put(start + FRAME_HEADER, payload.array());
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(start, payloadLength);
+        lastSequence = record.sequence();
+        position = start + FRAME_HEADER + payloadLength;
+        return true;
+    }
+
+    /**
+     * Forces written bytes up to {@code upTo} to disk. A caller that finds its bytes already forced by a
+     * concurrent caller returns immediately, which is what makes {@link FsyncPolicy#GROUP} a group commit.
+     */
+    synchronized void force(int upTo) {
+        if (flushed >= upTo) {
+            return;
+        }
+        int written = position;
+        buffer.force(flushed, written - flushed);
+        flushed = written;
+    }
+
+    void forceAll() {
+        force(position);
+    }
+
+    int position() {
+        return position;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        forceAll();
+        channel.close();
+    }
+
+    private void recover(Consumer<JournalRecord> consumer) {
+        int offset = 0;
+        CRC32 crc = new CRC32();
+        while (offset + FRAME_HEADER <= buffer.capacity()) {
+            int payloadLength = buffer.getInt(offset);
+            if (payloadLength < FIXED_PAYLOAD || offset + FRAME_HEADER + payloadLength > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(offset + FRAME_HEADER, payloadLength);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                break;
+            }
+            JournalRecord record = decode(payload);
+            lastSequence = record.sequence();
+            consumer.accept(record);
+            offset += FRAME_HEADER + payloadLength;
+        }
+        position = offset;
+        flushed = offset;
+        if (offset + Integer.BYTES <= buffer.capacity() && buffer.getInt(offset) != 0) {
+            for (int i = offset; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+    }
+
+    private JournalRecord decode(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        byte type = payload.get();
+        long from = payload.getLong();
+        long to = payload.getLong();
+        long amount = payload.getLong();
+        int keyLength = Short.toUnsignedInt(payload.getShort());
+        byte[] key = new byte[keyLength];
+        payload.get(key);
+        return new JournalRecord(sequence, type, from, to, amount,
+                keyLength == 0 ? null : new String(key, StandardCharsets.UTF_8));
+    }
+}
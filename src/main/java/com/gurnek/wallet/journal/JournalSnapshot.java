@@ -0,0 +1,70 @@
+package com.gurnek.wallet.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Wallet balances (minor units) as of {@code lastSequence}. Stored as
+ * {@code [long lastSequence][int count][count x (long walletId, long balance)][int crc32]} and replaced
+ * atomically, so a crash during compaction leaves the previous snapshot in place.
+ */
+record JournalSnapshot(long lastSequence, Map<Long, Long> balances) {
+
+    static final String FILE_NAME = "snapshot.bin";
+
+    static JournalSnapshot empty() {
+        return new JournalSnapshot(0L, new HashMap<>());
+    }
+
+    static JournalSnapshot read(Path directory) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.capacity() - Integer.BYTES);
+        if ((int) crc.getValue() != data.getInt(data.capacity() - Integer.BYTES)) {
+            throw new IOException("journal snapshot " + file + " is corrupt");
+        }
+        long lastSequence = data.getLong();
+        int count = data.getInt();
+        Map<Long, Long> balances = new HashMap<>(Math.max(16, count * 2));
+        for (int i = 0; i < count; i++) {
+            balances.put(data.getLong(), data.getLong());
+        }
+        return new JournalSnapshot(lastSequence, balances);
+    }
+
+    void write(Path directory) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + balances.size() * 2 * Long.BYTES + Integer.BYTES);
+        data.putLong(lastSequence);
+        data.putInt(balances.size());
+        balances.forEach((walletId, balance) -> {
+            data.putLong(walletId);
+            data.putLong(balance);
+        });
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.position());
+        data.putInt((int) crc.getValue());
+
+        Path temp = directory.resolve(FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            data.flip();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,336 @@
+package com.gurnek.wallet.journal;
+
+import com.gurnek.wallet.service.TransferJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of balance changes backed by memory-mapped {@link JournalSegment} files.
+ * <p>
+ * A record written inside a database transaction is appended before the database write as
+ * {@link JournalRecord#PENDING} and confirmed by a {@link JournalRecord#COMMIT} marker once the transaction has
+ * committed. Opening the journal loads the last {@link JournalSnapshot} and replays every later record whose
+ * transaction committed, so a crash between the append and the commit leaves no trace in
+ * {@link #balanceOf(long)}. {@link #checkBalances(JdbcTemplate)} compares the result with the wallet table.
+ */
+public class MappedTransferJournal implements TransferJournal, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedTransferJournal.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final Map<Long, Long> balances;
+    private final ConcurrentSkipListSet<Long> uncommitted = new ConcurrentSkipListSet<>();
+    private final Object appendLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private volatile JournalSegment active;
+    private long lastSequence;
+
+    private MappedTransferJournal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy,
+                                  JournalSnapshot snapshot) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.balances = new ConcurrentHashMap<>(snapshot.balances());
+        this.lastSequence = snapshot.lastSequence();
+        this.flusher = fsyncPolicy == FsyncPolicy.INTERVAL
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "journal-flusher");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public static MappedTransferJournal open(Path directory, int segmentSize, FsyncPolicy fsyncPolicy,
+                                             Duration fsyncInterval) throws IOException {
+        Files.createDirectories(directory);
+        JournalSnapshot snapshot = JournalSnapshot.read(directory);
+        MappedTransferJournal journal = new MappedTransferJournal(directory, segmentSize, fsyncPolicy, snapshot);
+        journal.replay(snapshot.lastSequence());
+        if (journal.flusher != null) {
+            long intervalNanos = fsyncInterval.toNanos();
+            journal.flusher.scheduleWithFixedDelay(journal::forceActive,
+                    intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+        log.info("Journal opened directory={} lastSequence={} wallets={} fsyncPolicy={}",
+                directory, journal.lastSequence, journal.balances.size(), fsyncPolicy);
+        return journal;
+    }
+
+    @Override
+    public void recordDeposit(Long walletId, BigDecimal amount) {
+        long minorUnits = toMinorUnits(amount);
+        record(sequence -> new JournalRecord(sequence, JournalRecord.DEPOSIT, 0L, walletId, minorUnits, null));
+    }
+
+    @Override
+    public void recordTransfer(Long fromWalletId, Long toWalletId, BigDecimal amount, String idempotencyKey) {
+        long minorUnits = toMinorUnits(amount);
+        record(sequence -> new JournalRecord(
+                sequence, JournalRecord.TRANSFER, fromWalletId, toWalletId, minorUnits, idempotencyKey));
+    }
+
+    @Override
+    public void recordConversion(Long fromWalletId, Long toWalletId, BigDecimal debitAmount, BigDecimal creditAmount,
+                                 String idempotencyKey) {
+        long debitMinorUnits = toMinorUnits(debitAmount);
+        long creditMinorUnits = toMinorUnits(creditAmount);
+        record(sequence -> new JournalRecord(
+                sequence, JournalRecord.WITHDRAWAL, fromWalletId, 0L, debitMinorUnits, idempotencyKey));
+        record(sequence -> new JournalRecord(
+                sequence, JournalRecord.DEPOSIT, 0L, toWalletId, creditMinorUnits, idempotencyKey));
+    }
+
+    @Override
+    public void recordWithdrawal(Long fromWalletId, BigDecimal amount, String idempotencyKey) {
+        long minorUnits = toMinorUnits(amount);
+        record(sequence -> new JournalRecord(
+                sequence, JournalRecord.WITHDRAWAL, fromWalletId, 0L, minorUnits, idempotencyKey));
+    }
+
+    public OptionalLong balanceOf(long walletId) {
+        Long balance = balances.get(walletId);
+        return balance == null ? OptionalLong.empty() : OptionalLong.of(balance);
+    }
+
+    /**
+     * Compares the journaled balance of every wallet with {@code wallet.balance} and logs each mismatch. A wallet
+     * the journal has never seen counts as a journaled balance of zero.
+     *
+     * @return number of wallets whose balances differ
+     */
+    public int checkBalances(JdbcTemplate jdbcTemplate) {
+        Map<Long, Long> journaled = new HashMap<>(balances);
+        int[] mismatches = new int[1];
+        jdbcTemplate.query("SELECT id, CAST(balance * 100 AS BIGINT) FROM wallet", rs -> {
+            long walletId = rs.getLong(1);
+            long expected = rs.getLong(2);
+            Long actual = journaled.remove(walletId);
+            if (expected != (actual == null ? 0L : actual)) {
+                mismatches[0]++;
+                log.warn("Journal balance mismatch walletId={} journal={} database={}", walletId, actual, expected);
+            }
+        });
+        journaled.forEach((walletId, balance) -> {
+            if (balance != 0L) {
+                mismatches[0]++;
+                log.warn("Journal balance mismatch walletId={} journal={} database=missing", walletId, balance);
+            }
+        });
+        if (mismatches[0] == 0) {
+            log.info("Journal balances match the wallet table wallets={}", balances.size());
+        } else {
+            log.warn("Journal balances differ from the wallet table for {} wallets", mismatches[0]);
+        }
+        return mismatches[0];
+    }
+
+    public long lastSequence() {
+        synchronized (appendLock) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the committed balances and deletes every sealed segment it covers. A segment holding a
+     * record whose transaction is still open is kept, so the record can be applied when its commit marker is
+     * replayed. Appends are only blocked while the balances are copied; the snapshot is written outside the lock.
+     */
+    public void compact() throws IOException {
+        JournalSnapshot snapshot;
+        long retainFrom;
+        synchronized (appendLock) {
+            active.forceAll();
+            snapshot = new JournalSnapshot(lastSequence, new HashMap<>(balances));
+            retainFrom = uncommitted.isEmpty()
+                    ? active.firstSequence()
+                    : Math.min(active.firstSequence(), uncommitted.first());
+        }
+        snapshot.write(directory);
+        int deleted = 0;
+        List<Path> segments = segmentFiles();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (JournalSegment.firstSequenceOf(segments.get(i + 1)) <= retainFrom) {
+                Files.delete(segments.get(i));
+                deleted++;
+            }
+        }
+        log.info("Journal compacted lastSequence={} wallets={} deletedSegments={}",
+                snapshot.lastSequence(), snapshot.balances().size(), deleted);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        synchronized (appendLock) {
+            active.close();
+        }
+    }
+
+    /**
+     * Appends the record as committed when no transaction is active. Inside a transaction it is appended as
+     * pending and only applied once the transaction commits.
+     */
+    private void record(LongFunction<JournalRecord> recordFactory) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(recordFactory);
+            return;
+        }
+        JournalRecord pending = append(sequence -> recordFactory.apply(sequence).pending());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(sequence -> JournalRecord.commitOf(sequence, pending), pending);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (uncommitted.remove(pending.sequence())) {
+                    log.info("Journal record sequence={} discarded after rollback", pending.sequence());
+                }
+            }
+        });
+    }
+
+    /**
+     * Appends a record and updates the balances under the append lock, so a snapshot always sees the balances
+     * that match its sequence. A pending record changes no balance until its commit marker is appended.
+     */
+    private JournalRecord append(LongFunction<JournalRecord> recordFactory) {
+        return append(recordFactory, null);
+    }
+
+    private JournalRecord append(LongFunction<JournalRecord> recordFactory, JournalRecord committing) {
+        JournalSegment segment;
+        JournalRecord record;
+        int end;
+        synchronized (appendLock) {
+            record = recordFactory.apply(lastSequence + 1);
+            if (!active.tryAppend(record)) {
+                roll(record.sequence());
+                if (!active.tryAppend(record)) {
+                    throw new IllegalStateException("journal record does not fit in an empty segment");
+                }
+            }
+            lastSequence = record.sequence();
+            if (record.isPending()) {
+                uncommitted.add(record.sequence());
+            } else if (record.isCommit()) {
+                uncommitted.remove(record.committedSequence());
+                committing.applyTo(balances);
+            } else {
+                record.applyTo(balances);
+            }
+            segment = active;
+            end = segment.position();
+            if (fsyncPolicy == FsyncPolicy.PER_RECORD) {
+                segment.force(end);
+            }
+        }
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            segment.force(end);
+        }
+        return record;
+    }
+
+    private void forceActive() {
+        synchronized (appendLock) {
+            active.forceAll();
+        }
+    }
+
+    private void roll(long firstSequence) {
+        try {
+            active.close();
+            active = JournalSegment.create(directory, firstSequence, segmentSize);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("could not roll journal segment", ex);
+        }
+        log.info("Journal rolled to segment={}", active.path().getFileName());
+    }
+
+    /**
+     * Applies committed records later than the snapshot. A pending record is held back until its commit
+     * marker is read; one whose marker is later than the snapshot is applied even if the record itself is
+     * older, because its transaction committed after the snapshot was taken.
+     */
+    private void replay(long snapshotSequence) throws IOException {
+        Map<Long, JournalRecord> pending = new HashMap<>();
+        List<Path> segments = segmentFiles();
+        for (int i = 0; i < segments.size(); i++) {
+            JournalSegment segment = JournalSegment.open(segments.get(i), segmentSize, record -> {
+                if (record.isPending()) {
+                    pending.put(record.sequence(), record);
+                } else if (record.isCommit()) {
+                    JournalRecord committed = pending.remove(record.committedSequence());
+                    if (record.sequence() <= snapshotSequence) {
+                        return;
+                    }
+                    if (committed == null) {
+                        log.warn("Journal commit marker sequence={} names unknown record sequence={}",
+                                record.sequence(), record.committedSequence());
+                    } else {
+                        committed.applyTo(balances);
+                    }
+                } else if (record.sequence() > snapshotSequence) {
+                    record.applyTo(balances);
+                }
+            });
+            lastSequence = Math.max(lastSequence, segment.lastSequence());
+            if (i == segments.size() - 1) {
+                active = segment;
+            } else {
+                segment.close();
+            }
+        }
+        if (active == null) {
+            active = JournalSegment.create(directory, lastSequence + 1, segmentSize);
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Journal ignored {} records whose transaction never committed", pending.size());
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(JournalSegment.FILE_PREFIX) && name.endsWith(JournalSegment.FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
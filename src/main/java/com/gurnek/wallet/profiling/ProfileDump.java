@@ -0,0 +1,10 @@
+package com.gurnek.wallet.profiling;
+
+import java.time.Instant;
+
+public record ProfileDump(
+        String path,
+        long sizeBytes,
+        Instant createdAt
+) {
+}
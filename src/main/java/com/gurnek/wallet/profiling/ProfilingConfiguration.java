@@ -0,0 +1,22 @@
+package com.gurnek.wallet.profiling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+@ConditionalOnProperty(prefix = "wallet.profiling", name = "enabled", havingValue = "true")
+public class ProfilingConfiguration {
+
+    @Bean(initMethod = "start")
+    public TransferProfiler transferProfiler(ProfilingProperties properties) {
+        return new TransferProfiler(properties);
+    }
+
+    @Bean
+    public TransferProfileEndpoint transferProfileEndpoint(TransferProfiler transferProfiler) {
+        return new TransferProfileEndpoint(transferProfiler);
+    }
+}
@@ -0,0 +1,37 @@
+package com.gurnek.wallet.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * {@code maxAge} and {@code maxSize} bound the in-memory/disk buffer that {@code dump} writes out.
+ */
+@ConfigurationProperties(prefix = "wallet.profiling")
+public record ProfilingProperties(
+        @DefaultValue("false")
+        boolean enabled,
+        @DefaultValue("PT1M")
+        Duration window,
+        @DefaultValue("PT10M")
+        Duration maxAge,
+        @DefaultValue("64MB")
+        DataSize maxSize,
+        @DefaultValue("10ms")
+        Duration monitorEnterThreshold,
+        Path dumpDirectory,
+        @DefaultValue("5")
+        int maxDumps
+) {
+    public ProfilingProperties {
+        if (dumpDirectory == null) {
+            dumpDirectory = Path.of(System.getProperty("java.io.tmpdir"), "wallet-jfr");
+        }
+        if (maxDumps < 1) {
+            throw new IllegalArgumentException("wallet.profiling.max-dumps must be at least 1");
+        }
+    }
+}
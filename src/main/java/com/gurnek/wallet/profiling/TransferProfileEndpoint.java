@@ -0,0 +1,36 @@
+package com.gurnek.wallet.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * {@code GET /actuator/transferprofile} returns the rolling per-phase latency summaries;
+ * {@code POST /actuator/transferprofile} dumps the bounded JFR recording to disk and returns its location.
+ */
+@Endpoint(id = "transferprofile")
+public class TransferProfileEndpoint {
+
+    private final TransferProfiler profiler;
+
+    public TransferProfileEndpoint(TransferProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public TransferProfileReport summaries() {
+        return profiler.report();
+    }
+
+    @WriteOperation
+    public ProfileDump dump() {
+        try {
+            return profiler.dump();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("could not dump transfer profile", ex);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.gurnek.wallet.profiling;
+
+import com.gurnek.wallet.metrics.LatencyHistogram;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Per-phase latency summaries in microseconds for the window in progress and the last complete one. Besides
+ * the transfer phases, {@code GC_PAUSE} and {@code MONITOR_ENTER} cover the JVM-wide stalls that most
+ * often explain a transfer p99 spike.
+ */
+public record TransferProfileReport(
+        Instant windowStartedAt,
+        Map<String, LatencyHistogram.Summary> current,
+        Instant previousWindowStartedAt,
+        Map<String, LatencyHistogram.Summary> previous
+) {
+}
@@ -0,0 +1,150 @@
+package com.gurnek.wallet.profiling;
+
+import com.gurnek.wallet.metrics.LatencyHistogram;
+import com.gurnek.wallet.service.TransferPhase;
+import com.gurnek.wallet.service.TransferPhaseEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams {@link TransferPhaseEvent}s, GC pauses and contended monitor enters from an in-process JFR
+ * recording into rolling per-phase {@link LatencyHistogram}s. Events are consumed on the stream's own thread,
+ * which also rotates the window after a flush, so recording never contends with readers. The underlying
+ * recording is bounded by {@code maxAge}/{@code maxSize} and can be dumped to disk at any time.
+ */
+public class TransferProfiler implements Closeable {
+
+    static final String GC_PAUSE = "GC_PAUSE";
+    static final String MONITOR_ENTER = "MONITOR_ENTER";
+    private static final String GC_PAUSE_EVENT = "jdk.GCPhasePause";
+    private static final String MONITOR_ENTER_EVENT = "jdk.JavaMonitorEnter";
+    private static final String DUMP_PREFIX = "transfer-";
+    private static final String DUMP_SUFFIX = ".jfr";
+    private static final Logger log = LoggerFactory.getLogger(TransferProfiler.class);
+
+    private final ProfilingProperties properties;
+    private final RecordingStream stream;
+    private final Object dumpLock = new Object();
+    private volatile Window current = new Window(Instant.now());
+    private volatile Window previous;
+
+    public TransferProfiler(ProfilingProperties properties) {
+        this.properties = properties;
+        this.stream = new RecordingStream();
+        stream.setMaxAge(properties.maxAge());
+        stream.setMaxSize(properties.maxSize().toBytes());
+        stream.enable(TransferPhaseEvent.NAME).withoutStackTrace();
+        stream.enable(GC_PAUSE_EVENT).withoutStackTrace();
+        stream.enable(MONITOR_ENTER_EVENT).withThreshold(properties.monitorEnterThreshold()).withStackTrace();
+        stream.onEvent(TransferPhaseEvent.NAME, event -> record(event.getString("phase"), event));
+        stream.onEvent(GC_PAUSE_EVENT, event -> record(GC_PAUSE, event));
+        stream.onEvent(MONITOR_ENTER_EVENT, event -> record(MONITOR_ENTER, event));
+        stream.onFlush(this::rotateIfDue);
+    }
+
+    public void start() {
+        stream.startAsync();
+        log.info("Transfer profiling started window={} maxAge={} maxSize={}",
+                properties.window(), properties.maxAge(), properties.maxSize());
+    }
+
+    public TransferProfileReport report() {
+        Window window = current;
+        Window last = previous;
+        return new TransferProfileReport(window.startedAt, window.summaries(),
+                last == null ? null : last.startedAt, last == null ? Map.of() : last.summaries());
+    }
+
+    /**
+     * Writes everything still buffered by the recording to a new file and keeps at most {@code maxDumps}
+     * files in the dump directory.
+     */
+    public ProfileDump dump() throws IOException {
+        synchronized (dumpLock) {
+            Files.createDirectories(properties.dumpDirectory());
+            Instant now = Instant.now();
+            Path file = properties.dumpDirectory().resolve(DUMP_PREFIX + now.toEpochMilli() + DUMP_SUFFIX);
+            stream.dump(file);
+            pruneDumps();
+            long size = Files.size(file);
+            log.info("Transfer profile dumped path={} bytes={}", file, size);
+            return new ProfileDump(file.toString(), size, now);
+        }
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private void record(String key, RecordedEvent event) {
+        LatencyHistogram histogram = current.histograms.get(key);
+        if (histogram != null) {
+            histogram.recordValue(Math.max(0L, event.getDuration().toNanos() / 1_000L));
+        }
+    }
+
+    private void rotateIfDue() {
+        Instant now = Instant.now();
+        if (!now.isBefore(current.startedAt.plus(properties.window()))) {
+            previous = current;
+            current = new Window(now);
+        }
+    }
+
+    private void pruneDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(properties.dumpDirectory())) {
+            dumps = files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(DUMP_PREFIX) && name.endsWith(DUMP_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < dumps.size() - properties.maxDumps(); i++) {
+            Files.deleteIfExists(dumps.get(i));
+        }
+    }
+
+    private static final class Window {
+
+        private final Instant startedAt;
+        private final Map<String, LatencyHistogram> histograms;
+
+        private Window(Instant startedAt) {
+            this.startedAt = startedAt;
+            Map<String, LatencyHistogram> byKey = new HashMap<>();
+            for (TransferPhase phase : TransferPhase.values()) {
+                byKey.put(phase.name(), new LatencyHistogram());
+            }
+            byKey.put(GC_PAUSE, new LatencyHistogram());
+            byKey.put(MONITOR_ENTER, new LatencyHistogram());
+            this.histograms = Map.copyOf(byKey);
+        }
+
+        private Map<String, LatencyHistogram.Summary> summaries() {
+            Map<String, LatencyHistogram.Summary> summaries = new LinkedHashMap<>();
+            for (TransferPhase phase : TransferPhase.values()) {
+                summaries.put(phase.name(), histograms.get(phase.name()).summary());
+            }
+            summaries.put(GC_PAUSE, histograms.get(GC_PAUSE).summary());
+            summaries.put(MONITOR_ENTER, histograms.get(MONITOR_ENTER).summary());
+            return summaries;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gurnek.wallet.reconciliation;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ReconciliationProperties.class)
+public class ReconciliationConfiguration {
+
+    @Bean
+    public ReconciliationEndpoint reconciliationEndpoint(ReconciliationService reconciliationService) {
+        return new ReconciliationEndpoint(reconciliationService);
+    }
+}
@@ -0,0 +1,29 @@
+package com.gurnek.wallet.reconciliation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * {@code GET /actuator/reconciliation} reports progress of the current or last run;
+ * {@code POST /actuator/reconciliation} starts a new run in the background.
+ */
+@Endpoint(id = "reconciliation")
+public class ReconciliationEndpoint {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationEndpoint(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    @ReadOperation
+    public ReconciliationReport status() {
+        return reconciliationService.status();
+    }
+
+    @WriteOperation
+    public ReconciliationReport start() {
+        return reconciliationService.start();
+    }
+}
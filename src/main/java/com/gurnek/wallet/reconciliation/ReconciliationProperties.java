@@ -0,0 +1,23 @@
+package com.gurnek.wallet.reconciliation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "wallet.reconciliation")
+public record ReconciliationProperties(
+        @DefaultValue("50000")
+        int chunkSize,
+        @DefaultValue("0")
+        int parallelism,
+        @DefaultValue("100")
+        int maxReportedDiscrepancies
+) {
+    /**
+     * Chunk scans borrow connections from the application pool, so a run never uses more than a quarter of it and
+     * online transfers keep finding free connections, whatever {@code parallelism} or the core count is.
+     */
+    int effectiveParallelism(int maxPoolSize) {
+        int requested = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(requested, maxPoolSize / 4));
+    }
+}
@@ -0,0 +1,33 @@
+package com.gurnek.wallet.reconciliation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public record ReconciliationReport(
+        State state,
+        Instant startedAt,
+        Instant finishedAt,
+        int parallelism,
+        long totalChunks,
+        long processedChunks,
+        long rowsScanned,
+        long walletsChecked,
+        long discrepancyCount,
+        List<Discrepancy> discrepancies,
+        String error
+) {
+    public enum State {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public record Discrepancy(
+            Long walletId,
+            BigDecimal balance,
+            BigDecimal expectedBalance
+    ) {
+    }
+}
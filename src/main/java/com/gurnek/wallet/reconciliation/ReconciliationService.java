@@ -0,0 +1,291 @@
+package com.gurnek.wallet.reconciliation;
+
+import com.gurnek.wallet.reconciliation.ReconciliationReport.Discrepancy;
+import com.gurnek.wallet.reconciliation.ReconciliationReport.State;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.LongFunction;
+
+/**
+ * Verifies every {@code wallet.balance} against its deposits and transfer credits/debits. Compensated
+ * cross-partition transfers are excluded since their debit was returned. Credits use
+ * {@code credited_amount} when a transfer was converted between currencies.
+ * <p>
+ * The ledger tables are scanned in id-range chunks on a dedicated {@link ForkJoinPool}; each chunk
+ * aggregates net flows per wallet into a {@link LongLongHashMap} and the maps are merged pairwise. Reads are
+ * plain autocommit queries, so no row locks are taken and online transfers keep running; the pool is sized to at
+ * most a quarter of the connection pool so the scans cannot starve transfers of connections. Because balances
+ * move during the scan, every mismatch found in the parallel pass is re-checked with one consistent
+ * per-wallet query before it is reported.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+    // HikariCP's default maximumPoolSize, assumed when the DataSource is not a Hikari pool
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final String TRANSFER_CHUNK_SQL = "SELECT from_wallet_id, to_wallet_id, CAST(amount * 100 AS BIGINT), "
+            + "CAST(COALESCE(credited_amount, amount) * 100 AS BIGINT) "
+            + "FROM transfer_transaction WHERE id >= ? AND id < ? AND status <> 'COMPENSATED'";
+    private static final String DEPOSIT_CHUNK_SQL = "SELECT wallet_id, CAST(amount * 100 AS BIGINT) "
+            + "FROM deposit_transaction WHERE id >= ? AND id < ?";
+    private static final String WALLET_CHUNK_SQL = "SELECT id, CAST(balance * 100 AS BIGINT) "
+            + "FROM wallet WHERE id >= ? AND id < ?";
+    private static final String CONFIRM_SQL = "SELECT w.balance, "
+            + "COALESCE((SELECT SUM(d.amount) FROM deposit_transaction d WHERE d.wallet_id = w.id), 0) "
+            + "+ COALESCE((SELECT SUM(COALESCE(t.credited_amount, t.amount)) FROM transfer_transaction t "
+            + "WHERE t.to_wallet_id = w.id AND t.status <> 'COMPENSATED'), 0) "
+            + "- COALESCE((SELECT SUM(t.amount) FROM transfer_transaction t "
+            + "WHERE t.from_wallet_id = w.id AND t.status <> 'COMPENSATED'), 0) "
+            + "FROM wallet w WHERE w.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReconciliationProperties properties;
+    private volatile Progress current;
+
+    public ReconciliationService(JdbcTemplate jdbcTemplate, ReconciliationProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    public ReconciliationReport status() {
+        Progress progress = current;
+        return progress == null ? idleReport() : progress.toReport();
+    }
+
+    /**
+     * Starts a run on a background thread unless one is already in progress, and returns its status.
+     */
+    public synchronized ReconciliationReport start() {
+        if (current != null && current.state == State.RUNNING) {
+            return current.toReport();
+        }
+        Progress progress = newProgress();
+        current = progress;
+        Thread runner = new Thread(() -> execute(progress), "reconciliation");
+        runner.setDaemon(true);
+        runner.start();
+        return progress.toReport();
+    }
+
+    /**
+     * Runs reconciliation on the calling thread.
+     */
+    public ReconciliationReport reconcile() {
+        Progress progress;
+        synchronized (this) {
+            if (current != null && current.state == State.RUNNING) {
+                throw new IllegalStateException("reconciliation already running");
+            }
+            progress = newProgress();
+            current = progress;
+        }
+        execute(progress);
+        return progress.toReport();
+    }
+
+    private void execute(Progress progress) {
+        int chunkSize = properties.chunkSize();
+        ForkJoinPool pool = new ForkJoinPool(progress.parallelism);
+        try {
+            long[] transferRange = idRange("transfer_transaction");
+            long[] depositRange = idRange("deposit_transaction");
+            long[] walletRange = idRange("wallet");
+            long transferChunks = chunkCount(transferRange, chunkSize);
+            long depositChunks = chunkCount(depositRange, chunkSize);
+            long walletChunks = chunkCount(walletRange, chunkSize);
+            progress.totalChunks = transferChunks + depositChunks + walletChunks;
+            log.info("Reconciliation started transferChunks={} depositChunks={} walletChunks={} parallelism={}",
+                    transferChunks, depositChunks, walletChunks, progress.parallelism);
+
+            LongLongHashMap transfers = forkJoin(pool, transferChunks,
+                    chunk -> aggregateTransfers(progress, transferRange[0] + chunk * chunkSize, chunkSize),
+                    ReconciliationService::merge, new LongLongHashMap());
+            LongLongHashMap deposits = forkJoin(pool, depositChunks,
+                    chunk -> aggregateDeposits(progress, depositRange[0] + chunk * chunkSize, chunkSize),
+                    ReconciliationService::merge, new LongLongHashMap());
+            LongLongHashMap expected = merge(transfers, deposits);
+            List<Long> candidates = forkJoin(pool, walletChunks,
+                    chunk -> compareBalances(progress, expected, walletRange[0] + chunk * chunkSize, chunkSize),
+                    (left, right) -> {
+                        left.addAll(right);
+                        return left;
+                    }, new ArrayList<>());
+
+            candidates.forEach(walletId -> confirm(progress, walletId));
+            progress.finish(State.COMPLETED, null);
+            log.info("Reconciliation completed rowsScanned={} walletsChecked={} discrepancies={}",
+                    progress.rowsScanned.get(), progress.walletsChecked.get(), progress.discrepancyCount.get());
+        } catch (RuntimeException ex) {
+            log.error("Reconciliation failed", ex);
+            progress.finish(State.FAILED, ex.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Progress newProgress() {
+        return new Progress(properties.effectiveParallelism(maxPoolSize(jdbcTemplate.getDataSource())));
+    }
+
+    private LongLongHashMap aggregateTransfers(Progress progress, long fromId, int chunkSize) {
+        LongLongHashMap flows = new LongLongHashMap();
+        jdbcTemplate.query(TRANSFER_CHUNK_SQL, rs -> {
+            flows.addTo(rs.getLong(1), -rs.getLong(3));
+            flows.addTo(rs.getLong(2), rs.getLong(4));
+            progress.rowsScanned.incrementAndGet();
+        }, fromId, fromId + chunkSize);
+        progress.processedChunks.incrementAndGet();
+        return flows;
+    }
+
+    private LongLongHashMap aggregateDeposits(Progress progress, long fromId, int chunkSize) {
+        LongLongHashMap flows = new LongLongHashMap();
+        jdbcTemplate.query(DEPOSIT_CHUNK_SQL, rs -> {
+            flows.addTo(rs.getLong(1), rs.getLong(2));
+            progress.rowsScanned.incrementAndGet();
+        }, fromId, fromId + chunkSize);
+        progress.processedChunks.incrementAndGet();
+        return flows;
+    }
+
+    private List<Long> compareBalances(Progress progress, LongLongHashMap expected, long fromId, int chunkSize) {
+        List<Long> candidates = new ArrayList<>();
+        jdbcTemplate.query(WALLET_CHUNK_SQL, rs -> {
+            long walletId = rs.getLong(1);
+            if (rs.getLong(2) != expected.get(walletId, 0L)) {
+                candidates.add(walletId);
+            }
+            progress.walletsChecked.incrementAndGet();
+        }, fromId, fromId + chunkSize);
+        progress.processedChunks.incrementAndGet();
+        return candidates;
+    }
+
+    private void confirm(Progress progress, Long walletId) {
+        jdbcTemplate.query(CONFIRM_SQL, rs -> {
+            BigDecimal balance = rs.getBigDecimal(1);
+            BigDecimal expectedBalance = rs.getBigDecimal(2);
+            if (balance.compareTo(expectedBalance) != 0) {
+                log.warn("Reconciliation discrepancy walletId={} balance={} expected={}", walletId, balance, expectedBalance);
+                progress.discrepancyCount.incrementAndGet();
+                if (progress.discrepancies.size() < properties.maxReportedDiscrepancies()) {
+                    progress.discrepancies.add(new Discrepancy(walletId, balance, expectedBalance));
+                }
+            }
+        }, walletId);
+    }
+
+    private long[] idRange(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), 0) FROM " + table,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    private static int maxPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException ex) {
+            log.debug("Could not determine connection pool size", ex);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    private static long chunkCount(long[] range, int chunkSize) {
+        return range[1] == 0 ? 0 : (range[1] - range[0]) / chunkSize + 1;
+    }
+
+    private static LongLongHashMap merge(LongLongHashMap left, LongLongHashMap right) {
+        if (left.size() < right.size()) {
+            right.addAll(left);
+            return right;
+        }
+        left.addAll(right);
+        return left;
+    }
+
+    private static <T> T forkJoin(ForkJoinPool pool, long chunks, LongFunction<T> leaf, BinaryOperator<T> combine,
+                                  T identity) {
+        if (chunks == 0) {
+            return identity;
+        }
+        return pool.invoke(new ChunkTask<>(0, chunks, leaf, combine));
+    }
+
+    private ReconciliationReport idleReport() {
+        return new ReconciliationReport(State.IDLE, null, null, 0, 0, 0, 0, 0, 0, List.of(), null);
+    }
+
+    private static final class ChunkTask<T> extends RecursiveTask<T> {
+
+        private final long fromChunk;
+        private final long toChunk;
+        private final LongFunction<T> leaf;
+        private final BinaryOperator<T> combine;
+
+        private ChunkTask(long fromChunk, long toChunk, LongFunction<T> leaf, BinaryOperator<T> combine) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.leaf = leaf;
+            this.combine = combine;
+        }
+
+        @Override
+        protected T compute() {
+            if (toChunk - fromChunk == 1) {
+                return leaf.apply(fromChunk);
+            }
+            long middle = (fromChunk + toChunk) >>> 1;
+            ChunkTask<T> left = new ChunkTask<>(fromChunk, middle, leaf, combine);
+            left.fork();
+            T right = new ChunkTask<>(middle, toChunk, leaf, combine).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+
+    private static final class Progress {
+
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong processedChunks = new AtomicLong();
+        private final AtomicLong rowsScanned = new AtomicLong();
+        private final AtomicLong walletsChecked = new AtomicLong();
+        private final AtomicLong discrepancyCount = new AtomicLong();
+        private final List<Discrepancy> discrepancies = new CopyOnWriteArrayList<>();
+        private final int parallelism;
+        private volatile long totalChunks;
+        private volatile State state = State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Progress(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        void finish(State finalState, String failure) {
+            finishedAt = Instant.now();
+            error = failure;
+            state = finalState;
+        }
+
+        ReconciliationReport toReport() {
+            return new ReconciliationReport(state, startedAt, finishedAt, parallelism, totalChunks, processedChunks.get(),
+                    rowsScanned.get(), walletsChecked.get(), discrepancyCount.get(), List.copyOf(discrepancies), error);
+        }
+    }
+}
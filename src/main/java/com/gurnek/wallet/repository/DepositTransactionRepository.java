@@ -0,0 +1,7 @@
+package com.gurnek.wallet.repository;
+
+import com.gurnek.wallet.domain.DepositTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DepositTransactionRepository extends JpaRepository<DepositTransaction, Long> {
+}
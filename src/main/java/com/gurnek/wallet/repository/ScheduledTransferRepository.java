@@ -0,0 +1,64 @@
+package com.gurnek.wallet.repository;
+
+import com.gurnek.wallet.domain.ScheduleStatus;
+import com.gurnek.wallet.domain.ScheduledTransfer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+    Optional<ScheduledTransfer> findByIdempotencyKey(String idempotencyKey);
+
+    Optional<ScheduledTransfer> findByIdAndFromWalletId(Long id, Long fromWalletId);
+
+    List<ScheduledTransfer> findTop100ByFromWalletIdOrderByIdDesc(Long fromWalletId);
+
+    List<ScheduledTransfer> findByLeaseToken(String leaseToken);
+
+    @Query("SELECT s.id FROM ScheduledTransfer s WHERE s.status = :status AND s.nextRunAt <= :now "
+            + "AND (s.leaseUntil IS NULL OR s.leaseUntil < :now) ORDER BY s.nextRunAt")
+    List<Long> findDueIds(@Param("status") ScheduleStatus status, @Param("now") Instant now, Pageable page);
+
+    /**
+     * Leases whichever of {@code ids} no other instance holds. A row that a concurrent claim is updating is
+     * waited on, not skipped: once the other transaction commits, the lease condition is re-evaluated and
+     * the row no longer matches, so it is left out of this claim.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledTransfer s SET s.leaseToken = :token, s.leaseUntil = :until "
+            + "WHERE s.id IN :ids AND s.status = com.gurnek.wallet.domain.ScheduleStatus.ACTIVE "
+            + "AND (s.leaseUntil IS NULL OR s.leaseUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("until") Instant until,
+              @Param("now") Instant now);
+
+    /**
+     * Records the outcome of the occurrence claimed as {@code occurrence}, moves the schedule on to
+     * {@code next} and releases the lease. A schedule cancelled while the occurrence ran stays cancelled.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledTransfer s SET s.occurrence = :next, s.nextRunAt = :nextRunAt, "
+            + "s.status = CASE WHEN s.status = com.gurnek.wallet.domain.ScheduleStatus.CANCELLED THEN s.status "
+            + "ELSE :status END, s.lastTransferId = :transferId, s.lastError = :error, "
+            + "s.leaseToken = NULL, s.leaseUntil = NULL "
+            + "WHERE s.id = :id AND s.leaseToken = :token AND s.occurrence = :occurrence")
+    int advance(@Param("id") Long id, @Param("token") String token, @Param("occurrence") long occurrence,
+                @Param("next") long next, @Param("nextRunAt") Instant nextRunAt,
+                @Param("status") ScheduleStatus status, @Param("transferId") Long transferId, @Param("error") String error);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledTransfer s SET s.leaseToken = NULL, s.leaseUntil = NULL "
+            + "WHERE s.id = :id AND s.leaseToken = :token")
+    int releaseLease(@Param("id") Long id, @Param("token") String token);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledTransfer s SET s.status = com.gurnek.wallet.domain.ScheduleStatus.CANCELLED "
+            + "WHERE s.id = :id AND s.status = com.gurnek.wallet.domain.ScheduleStatus.ACTIVE")
+    int cancel(@Param("id") Long id);
+}
@@ -1,10 +1,22 @@
 package com.gurnek.wallet.repository;
 
+import com.gurnek.wallet.domain.TransferStatus;
 import com.gurnek.wallet.domain.TransferTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface TransferTransactionRepository extends JpaRepository<TransferTransaction, Long> {
     Optional<TransferTransaction> findByIdempotencyKey(String idempotencyKey);
+
+    List<TransferTransaction> findTop100ByStatusAndCreatedAtBeforeOrderByIdAsc(TransferStatus status, Instant createdBefore);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TransferTransaction t SET t.status = :to WHERE t.id = :id AND t.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") TransferStatus from, @Param("to") TransferStatus to);
 }
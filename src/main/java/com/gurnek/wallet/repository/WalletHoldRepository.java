@@ -0,0 +1,36 @@
+package com.gurnek.wallet.repository;
+
+import com.gurnek.wallet.domain.HoldStatus;
+import com.gurnek.wallet.domain.WalletHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface WalletHoldRepository extends JpaRepository<WalletHold, Long> {
+    Optional<WalletHold> findByIdempotencyKey(String idempotencyKey);
+
+    Optional<WalletHold> findByIdAndWalletId(Long id, Long walletId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM WalletHold h WHERE h.status = :status AND h.expiresAt <= :now ORDER BY h.expiresAt")
+    List<WalletHold> lockExpired(@Param("status") HoldStatus status, @Param("now") Instant now, Pageable page);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WalletHold h SET h.status = com.gurnek.wallet.domain.HoldStatus.CAPTURED, h.capturedAmount = :amount "
+            + "WHERE h.id = :id AND h.status = com.gurnek.wallet.domain.HoldStatus.AUTHORIZED AND h.expiresAt > :now")
+    int markCaptured(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WalletHold h SET h.status = com.gurnek.wallet.domain.HoldStatus.RELEASED "
+            + "WHERE h.id = :id AND h.status = com.gurnek.wallet.domain.HoldStatus.AUTHORIZED")
+    int markReleased(@Param("id") Long id);
+}
@@ -2,6 +2,37 @@ package com.gurnek.wallet.repository;
 
 import com.gurnek.wallet.domain.Wallet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * The bulk updates below bump {@code version}, so a transfer that loaded the wallet earlier fails its
+ * optimistic check instead of overwriting the change.
+ */
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
+
+    @Query("SELECT w.currency FROM Wallet w WHERE w.id = :id")
+    Optional<String> findCurrencyById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.heldBalance = w.heldBalance + :amount, w.version = w.version + 1 "
+            + "WHERE w.id = :id AND w.balance - w.heldBalance >= :amount")
+    int reserve(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.heldBalance = w.heldBalance - :amount, w.version = w.version + 1 WHERE w.id = :id")
+    int releaseHeld(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :captured, w.heldBalance = w.heldBalance - :held, "
+            + "w.version = w.version + 1 WHERE w.id = :id")
+    int captureHeld(@Param("id") Long id, @Param("captured") BigDecimal captured, @Param("held") BigDecimal held);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount, w.version = w.version + 1 WHERE w.id = :id")
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount);
 }
@@ -0,0 +1,14 @@
+package com.gurnek.wallet.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of converting a debit amount into the credited wallet's currency. {@code rate} is the exact
+ * multiplier that was applied, so the credit can be reproduced from the transfer row alone.
+ */
+public record FxConversion(
+        BigDecimal creditedAmount,
+        BigDecimal rate,
+        long rateVersion
+) {
+}
@@ -0,0 +1,29 @@
+package com.gurnek.wallet.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Hook used when a balance change crosses wallet currencies. Implementations either convert the amount or
+ * throw {@link BusinessException} for a pair they have no rate for; they are not called for same-currency
+ * changes.
+ */
+public interface FxRateProvider {
+
+    boolean supports(String currency);
+
+    FxConversion convert(String fromCurrency, String toCurrency, BigDecimal amount);
+
+    static FxRateProvider sameCurrencyOnly() {
+        return new FxRateProvider() {
+            @Override
+            public boolean supports(String currency) {
+                return true;
+            }
+
+            @Override
+            public FxConversion convert(String fromCurrency, String toCurrency, BigDecimal amount) {
+                throw new BusinessException("no FX rate for " + fromCurrency + "->" + toCurrency);
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.gurnek.wallet.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HoldExpirySweeper {
+
+    private final HoldService holdService;
+    private final HoldProperties properties;
+
+    public HoldExpirySweeper(HoldService holdService, HoldProperties properties) {
+        this.holdService = holdService;
+        this.properties = properties;
+    }
+
+    /**
+     * Drains all overdue holds, one batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${wallet.holds.sweep-interval:PT30S}")
+    public void sweep() {
+        int expired;
+        do {
+            expired = holdService.expireDueHolds();
+        } while (expired == properties.sweepBatchSize());
+    }
+}
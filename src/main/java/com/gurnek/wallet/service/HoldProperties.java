@@ -0,0 +1,19 @@
+package com.gurnek.wallet.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "wallet.holds")
+public record HoldProperties(
+        @DefaultValue("15m")
+        Duration defaultTtl,
+        @DefaultValue("7d")
+        Duration maxTtl,
+        @DefaultValue("PT30S")
+        Duration sweepInterval,
+        @DefaultValue("500")
+        int sweepBatchSize
+) {
+}
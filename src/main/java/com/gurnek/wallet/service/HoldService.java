@@ -0,0 +1,248 @@
+package com.gurnek.wallet.service;
+
+import com.gurnek.wallet.api.dto.HoldResponse;
+import com.gurnek.wallet.domain.HoldStatus;
+import com.gurnek.wallet.domain.TransferStatus;
+import com.gurnek.wallet.domain.TransferTransaction;
+import com.gurnek.wallet.domain.Wallet;
+import com.gurnek.wallet.domain.WalletHold;
+import com.gurnek.wallet.repository.TransferTransactionRepository;
+import com.gurnek.wallet.repository.WalletHoldRepository;
+import com.gurnek.wallet.repository.WalletRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Authorize/capture holds. Authorization reserves funds with one conditional update of
+ * {@code wallet.held_balance}, so no wallet row is loaded or locked beyond that statement. Capture flips the
+ * hold's status with a conditional update and then moves the already reserved funds without checking the
+ * balance again. The captured amount counts against the payer's velocity limits like any other transfer.
+ */
+@Service
+public class HoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldService.class);
+    private final WalletRepository walletRepository;
+    private final WalletHoldRepository walletHoldRepository;
+    private final TransferTransactionRepository transferTransactionRepository;
+    private final TransferJournal transferJournal;
+    private final VelocityLimiter velocityLimiter;
+    private final WalletPartitioning walletPartitioning;
+    private final FxRateProvider fxRateProvider;
+    private final HoldProperties properties;
+
+    public HoldService(WalletRepository walletRepository,
+                       WalletHoldRepository walletHoldRepository,
+                       TransferTransactionRepository transferTransactionRepository,
+                       TransferJournal transferJournal,
+                       VelocityLimiter velocityLimiter,
+                       WalletPartitioning walletPartitioning,
+                       FxRateProvider fxRateProvider,
+                       HoldProperties properties) {
+        this.walletRepository = walletRepository;
+        this.walletHoldRepository = walletHoldRepository;
+        this.transferTransactionRepository = transferTransactionRepository;
+        this.transferJournal = transferJournal;
+        this.velocityLimiter = velocityLimiter;
+        this.walletPartitioning = walletPartitioning;
+        this.fxRateProvider = fxRateProvider;
+        this.properties = properties;
+    }
+
+    @Transactional
+    public HoldResponse authorize(Long walletId, Long toWalletId, BigDecimal amount, Long ttlSeconds,
+                                  String idempotencyKey) {
+        log.info("Hold request walletId={} toWalletId={} amount={} idempotencyKey={}",
+                walletId, toWalletId, amount, idempotencyKey);
+        WalletHold existing = walletHoldRepository.findByIdempotencyKey(idempotencyKey).orElse(null);
+        if (existing != null) {
+            if (!existing.getWalletId().equals(walletId)
+                    || !existing.getToWalletId().equals(toWalletId)
+                    || existing.getAmount().compareTo(amount) != 0) {
+                log.warn("Idempotency key reused for a different hold key={} holdId={}", idempotencyKey, existing.getId());
+                throw new BusinessException("idempotency key already used for a different hold");
+            }
+            log.info("Idempotent replay detected for key={} holdId={}", idempotencyKey, existing.getId());
+            return toResponse(existing);
+        }
+        if (walletId.equals(toWalletId)) {
+            throw new BusinessException("walletId and toWalletId cannot be the same");
+        }
+        Duration ttl = ttlSeconds == null ? properties.defaultTtl() : Duration.ofSeconds(ttlSeconds);
+        if (ttl.compareTo(properties.maxTtl()) > 0) {
+            throw new BusinessException("ttlSeconds exceeds the maximum of " + properties.maxTtl().toSeconds());
+        }
+        if (walletPartitioning.isRemote(toWalletId)) {
+            throw new BusinessException("holds require both wallets on the same node");
+        }
+        String toCurrency = walletRepository.findCurrencyById(toWalletId)
+                .orElseThrow(() -> new NotFoundException("destination wallet not found"));
+        String fromCurrency = walletRepository.findCurrencyById(walletId)
+                .orElseThrow(() -> new NotFoundException("wallet not found"));
+        if (!fromCurrency.equals(toCurrency)) {
+            fxRateProvider.convert(fromCurrency, toCurrency, amount);
+        }
+        if (walletRepository.reserve(walletId, amount) == 0) {
+            log.warn("Hold rejected for insufficient available balance walletId={} requested={}", walletId, amount);
+            throw new BusinessException("insufficient balance");
+        }
+
+        WalletHold hold = new WalletHold();
+        hold.setWalletId(walletId);
+        hold.setToWalletId(toWalletId);
+        hold.setAmount(amount);
+        hold.setStatus(HoldStatus.AUTHORIZED);
+        hold.setIdempotencyKey(idempotencyKey);
+        hold.setExpiresAt(Instant.now().plus(ttl));
+        WalletHold saved = walletHoldRepository.save(hold);
+        log.info("Hold authorized holdId={} walletId={} amount={} expiresAt={}",
+                saved.getId(), walletId, amount, saved.getExpiresAt());
+        return toResponse(saved);
+    }
+
+    /**
+     * Captures {@code amount} (the full hold when {@code null}) into the hold's destination wallet and returns
+     * any remainder to the payer's available balance. Repeating a capture returns the captured hold. A
+     * cross-currency hold is converted at the rate current at capture time.
+     */
+    @Transactional
+    public HoldResponse capture(Long walletId, Long holdId, BigDecimal amount) {
+        log.info("Capture request walletId={} holdId={} amount={}", walletId, holdId, amount);
+        WalletHold hold = findHold(walletId, holdId);
+        BigDecimal captured = amount == null ? hold.getAmount() : amount;
+        if (captured.compareTo(hold.getAmount()) > 0) {
+            throw new BusinessException("capture amount exceeds hold amount");
+        }
+        if (walletHoldRepository.markCaptured(holdId, captured, Instant.now()) == 0) {
+            WalletHold current = findHold(walletId, holdId);
+            if (current.getStatus() == HoldStatus.CAPTURED
+                    && (amount == null || amount.compareTo(current.getCapturedAmount()) == 0)) {
+                return toResponse(current);
+            }
+            throw new BusinessException(current.getStatus() == HoldStatus.AUTHORIZED
+                    ? "hold has expired"
+                    : "hold is " + current.getStatus().name().toLowerCase());
+        }
+
+        Long toWalletId = hold.getToWalletId();
+        Wallet wallet = walletRepository.findById(walletId)
+                .orElseThrow(() -> new NotFoundException("wallet not found"));
+        String toCurrency = walletRepository.findCurrencyById(toWalletId)
+                .orElseThrow(() -> new NotFoundException("destination wallet not found"));
+        FxConversion conversion = wallet.getCurrency().equals(toCurrency)
+                ? null
+                : fxRateProvider.convert(wallet.getCurrency(), toCurrency, captured);
+        BigDecimal credited = conversion == null ? captured : conversion.creditedAmount();
+        velocityLimiter.checkAndRecord(walletId, wallet.getTier(), captured);
+
+        String idempotencyKey = IdempotencyKeys.holdCapture(holdId);
+        if (conversion == null) {
+            transferJournal.recordTransfer(walletId, toWalletId, captured, idempotencyKey);
+        } else {
+            transferJournal.recordConversion(walletId, toWalletId, captured, credited, idempotencyKey);
+        }
+        if (walletId < toWalletId) {
+            walletRepository.captureHeld(walletId, captured, hold.getAmount());
+            creditDestination(toWalletId, credited);
+        } else {
+            creditDestination(toWalletId, credited);
+            walletRepository.captureHeld(walletId, captured, hold.getAmount());
+        }
+
+        TransferTransaction tx = new TransferTransaction();
+        tx.setId(walletPartitioning.assignTransferId());
+        tx.setFromWalletId(walletId);
+        tx.setToWalletId(toWalletId);
+        tx.setAmount(captured);
+        WalletService.applyConversion(tx, conversion);
+        tx.setStatus(TransferStatus.SUCCESS);
+        tx.setIdempotencyKey(idempotencyKey);
+        TransferTransaction transfer = transferTransactionRepository.save(tx);
+
+        WalletHold capturedHold = findHold(walletId, holdId);
+        capturedHold.setCaptureTransferId(transfer.getId());
+        log.info("Hold captured holdId={} transferId={} captured={} released={}",
+                holdId, transfer.getId(), captured, hold.getAmount().subtract(captured));
+        return toResponse(walletHoldRepository.save(capturedHold));
+    }
+
+    @Transactional
+    public HoldResponse release(Long walletId, Long holdId) {
+        log.info("Release request walletId={} holdId={}", walletId, holdId);
+        WalletHold hold = findHold(walletId, holdId);
+        if (walletHoldRepository.markReleased(holdId) == 0) {
+            WalletHold current = findHold(walletId, holdId);
+            if (current.getStatus() == HoldStatus.RELEASED) {
+                return toResponse(current);
+            }
+            throw new BusinessException("hold is " + current.getStatus().name().toLowerCase());
+        }
+        walletRepository.releaseHeld(walletId, hold.getAmount());
+        log.info("Hold released holdId={} walletId={} amount={}", holdId, walletId, hold.getAmount());
+        return toResponse(findHold(walletId, holdId));
+    }
+
+    public HoldResponse getHold(Long walletId, Long holdId) {
+        return toResponse(findHold(walletId, holdId));
+    }
+
+    /**
+     * Expires up to {@code sweepBatchSize} overdue holds in one transaction. The holds are row-locked, so a
+     * concurrent capture either finishes first or finds the hold expired; held balances are then reduced with
+     * one update per wallet.
+     *
+     * @return number of holds expired
+     */
+    @Transactional
+    public int expireDueHolds() {
+        List<WalletHold> due = walletHoldRepository.lockExpired(HoldStatus.AUTHORIZED, Instant.now(),
+                PageRequest.of(0, properties.sweepBatchSize()));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Map<Long, BigDecimal> releasedByWallet = new TreeMap<>();
+        for (WalletHold hold : due) {
+            hold.setStatus(HoldStatus.EXPIRED);
+            releasedByWallet.merge(hold.getWalletId(), hold.getAmount(), BigDecimal::add);
+        }
+        walletHoldRepository.saveAll(due);
+        releasedByWallet.forEach(walletRepository::releaseHeld);
+        log.info("Expired {} holds across {} wallets", due.size(), releasedByWallet.size());
+        return due.size();
+    }
+
+    private void creditDestination(Long toWalletId, BigDecimal amount) {
+        if (walletRepository.credit(toWalletId, amount) == 0) {
+            throw new NotFoundException("destination wallet not found");
+        }
+    }
+
+    private WalletHold findHold(Long walletId, Long holdId) {
+        return walletHoldRepository.findByIdAndWalletId(holdId, walletId)
+                .orElseThrow(() -> new NotFoundException("hold not found"));
+    }
+
+    private HoldResponse toResponse(WalletHold hold) {
+        return new HoldResponse(
+                hold.getId(),
+                hold.getWalletId(),
+                hold.getToWalletId(),
+                hold.getAmount(),
+                hold.getCapturedAmount(),
+                hold.getStatus(),
+                hold.getCaptureTransferId(),
+                hold.getExpiresAt(),
+                hold.getCreatedAt()
+        );
+    }
+}
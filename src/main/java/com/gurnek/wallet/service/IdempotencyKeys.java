@@ -0,0 +1,48 @@
+package com.gurnek.wallet.service;
+
+import java.util.List;
+
+/**
+ * Idempotency keys the service derives for its own transfers. They share
+ * {@code transfer_transaction.idempotency_key} with client-supplied keys, so every entry point that accepts a key
+ * from a client must pass it through {@link #requireClientKey} before use.
+ */
+public final class IdempotencyKeys {
+
+    private static final String REMOTE_CREDIT_PREFIX = "saga-";
+    private static final String HOLD_CAPTURE_PREFIX = "hold-";
+    private static final String SCHEDULED_PREFIX = "sched-";
+    private static final List<String> RESERVED_PREFIXES =
+            List.of(REMOTE_CREDIT_PREFIX, HOLD_CAPTURE_PREFIX, SCHEDULED_PREFIX);
+
+    private IdempotencyKeys() {
+    }
+
+    public static String remoteCredit(String nodeId, Long transferId) {
+        return REMOTE_CREDIT_PREFIX + nodeId + "-" + transferId;
+    }
+
+    public static String holdCapture(Long holdId) {
+        return HOLD_CAPTURE_PREFIX + holdId + "-capture";
+    }
+
+    public static String scheduledOccurrence(Long scheduleId, long occurrence) {
+        return SCHEDULED_PREFIX + scheduleId + "-" + occurrence;
+    }
+
+    public static boolean isReserved(String key) {
+        for (String prefix : RESERVED_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static String requireClientKey(String key) {
+        if (isReserved(key)) {
+            throw new BusinessException("idempotency key uses a reserved prefix");
+        }
+        return key;
+    }
+}
@@ -0,0 +1,41 @@
+package com.gurnek.wallet.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * {@code lease} must comfortably exceed the time to run one batch; a schedule whose lease lapses is claimed
+ * again and its occurrence replays through the transfer idempotency key. {@code startAtTolerance} is how far in
+ * the past a new schedule's {@code startAt} may lie, to absorb clock skew between client and server.
+ */
+@ConfigurationProperties(prefix = "wallet.schedules")
+public record ScheduleProperties(
+        @DefaultValue("true")
+        boolean enabled,
+        @DefaultValue("PT1S")
+        Duration pollInterval,
+        @DefaultValue("200")
+        int batchSize,
+        @DefaultValue("4")
+        int executionThreads,
+        @DefaultValue("PT1M")
+        Duration lease,
+        @DefaultValue("RUN_ALL")
+        CatchUp catchUp,
+        @DefaultValue("PT5M")
+        Duration startAtTolerance
+) {
+    /**
+     * What to do with occurrences that fell due while no instance was polling, for example during downtime. An
+     * occurrence counts as missed once the schedule's next occurrence is also due. Schedules cannot be created
+     * with a past {@code startAt}, so only real downtime produces missed occurrences.
+     */
+    public enum CatchUp {
+        /** Run every missed occurrence, back to back, until the schedule is current. */
+        RUN_ALL,
+        /** Run only the most recent due occurrence; the missed ones before it are skipped without a transfer. */
+        COALESCE
+    }
+}
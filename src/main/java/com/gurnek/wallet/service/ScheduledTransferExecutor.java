@@ -0,0 +1,107 @@
+package com.gurnek.wallet.service;
+
+import com.gurnek.wallet.api.dto.TransferRequest;
+import com.gurnek.wallet.domain.ScheduledTransfer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls for due schedules and runs each claimed occurrence on a small worker pool. Batches are drained back to
+ * back until a short batch shows the backlog is empty.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.schedules", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduledTransferExecutor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTransferExecutor.class);
+    private final ScheduledTransferService scheduledTransferService;
+    private final WalletService walletService;
+    private final ScheduleProperties properties;
+    private final ExecutorService workers;
+
+    public ScheduledTransferExecutor(ScheduledTransferService scheduledTransferService,
+                                     WalletService walletService,
+                                     ScheduleProperties properties) {
+        this.scheduledTransferService = scheduledTransferService;
+        this.walletService = walletService;
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.executionThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-transfer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.schedules.poll-interval:PT1S}")
+    public void poll() {
+        runDue();
+    }
+
+    /**
+     * @return number of occurrences that produced a transfer
+     */
+    public int runDue() {
+        int transferred = 0;
+        List<ScheduledTransfer> batch;
+        do {
+            batch = scheduledTransferService.claimDue(Instant.now());
+            List<Callable<Boolean>> tasks = batch.stream()
+                    .<Callable<Boolean>>map(schedule -> () -> fire(schedule))
+                    .toList();
+            try {
+                for (Future<Boolean> result : workers.invokeAll(tasks)) {
+                    if (result.get()) {
+                        transferred++;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return transferred;
+            } catch (ExecutionException ex) {
+                log.error("Scheduled transfer worker failed", ex.getCause());
+            }
+        } while (batch.size() == properties.batchSize());
+        return transferred;
+    }
+
+    private boolean fire(ScheduledTransfer schedule) {
+        long occurrence = scheduledTransferService.occurrenceToRun(schedule, Instant.now());
+        String idempotencyKey = ScheduledTransferService.idempotencyKeyOf(schedule, occurrence);
+        try {
+            Long transferId = walletService.transfer(
+                    new TransferRequest(schedule.getFromWalletId(), schedule.getToWalletId(), schedule.getAmount()),
+                    idempotencyKey).transferId();
+            scheduledTransferService.completeOccurrence(schedule, occurrence, transferId, null);
+            return true;
+        } catch (BusinessException | NotFoundException ex) {
+            log.warn("Scheduled transfer occurrence skipped scheduleId={} key={} reason={}",
+                    schedule.getId(), idempotencyKey, ex.getMessage());
+            scheduledTransferService.completeOccurrence(schedule, occurrence, null, ex.getMessage());
+            return false;
+        } catch (RuntimeException ex) {
+            log.warn("Scheduled transfer occurrence will be retried scheduleId={} key={}",
+                    schedule.getId(), idempotencyKey, ex);
+            scheduledTransferService.releaseLease(schedule);
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,229 @@
+package com.gurnek.wallet.service;
+
+import com.gurnek.wallet.api.dto.CreateScheduledTransferRequest;
+import com.gurnek.wallet.api.dto.ScheduledTransferResponse;
+import com.gurnek.wallet.domain.ScheduleStatus;
+import com.gurnek.wallet.domain.ScheduledTransfer;
+import com.gurnek.wallet.domain.TransferRecurrence;
+import com.gurnek.wallet.repository.ScheduledTransferRepository;
+import com.gurnek.wallet.repository.WalletRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores schedules and hands out due occurrences. Each occurrence runs through
+ * {@link WalletService#transfer} with the key {@code sched-{scheduleId}-{occurrence}}, so an occurrence that is
+ * claimed twice (after a crash or an expired lease) replays the original transfer instead of paying again. The
+ * {@code sched-} prefix is reserved, and a replay must match the schedule's wallets and amount, so a stored
+ * transfer can only satisfy the occurrence it was made for.
+ */
+@Service
+public class ScheduledTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTransferService.class);
+    private static final int MAX_ERROR_LENGTH = 255;
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final WalletRepository walletRepository;
+    private final WalletPartitioning walletPartitioning;
+    private final ScheduleProperties properties;
+
+    public ScheduledTransferService(ScheduledTransferRepository scheduledTransferRepository,
+                                    WalletRepository walletRepository,
+                                    WalletPartitioning walletPartitioning,
+                                    ScheduleProperties properties) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.walletRepository = walletRepository;
+        this.walletPartitioning = walletPartitioning;
+        this.properties = properties;
+    }
+
+    @Transactional
+    public ScheduledTransferResponse create(Long walletId, CreateScheduledTransferRequest request, String idempotencyKey) {
+        log.info("Schedule request fromWalletId={} toWalletId={} amount={} recurrence={} idempotencyKey={}",
+                walletId, request.toWalletId(), request.amount(), request.recurrence(), idempotencyKey);
+        TransferRecurrence recurrence = request.recurrence() == null ? TransferRecurrence.ONCE : request.recurrence();
+        ScheduledTransfer existing = scheduledTransferRepository.findByIdempotencyKey(idempotencyKey).orElse(null);
+        if (existing != null) {
+            if (!existing.getFromWalletId().equals(walletId)
+                    || !existing.getToWalletId().equals(request.toWalletId())
+                    || existing.getAmount().compareTo(request.amount()) != 0
+                    || existing.getRecurrence() != recurrence) {
+                log.warn("Idempotency key reused for a different schedule key={} scheduleId={}",
+                        idempotencyKey, existing.getId());
+                throw new BusinessException("idempotency key already used for a different schedule");
+            }
+            log.info("Idempotent replay detected for key={} scheduleId={}", idempotencyKey, existing.getId());
+            return toResponse(existing);
+        }
+        if (walletId.equals(request.toWalletId())) {
+            throw new BusinessException("walletId and toWalletId cannot be the same");
+        }
+        Instant now = Instant.now();
+        if (request.startAt() != null && request.startAt().isBefore(now.minus(properties.startAtTolerance()))) {
+            throw new BusinessException("startAt must not be in the past");
+        }
+        Instant startAt = request.startAt() == null ? now : request.startAt();
+        if (request.endAt() != null && request.endAt().isBefore(startAt)) {
+            throw new BusinessException("endAt must not be before startAt");
+        }
+        if (walletPartitioning.isRemote(request.toWalletId())) {
+            throw new BusinessException("scheduled transfers require both wallets on the same node");
+        }
+        if (!walletRepository.existsById(walletId)) {
+            throw new NotFoundException("wallet not found");
+        }
+        if (!walletRepository.existsById(request.toWalletId())) {
+            throw new NotFoundException("destination wallet not found");
+        }
+
+        ScheduledTransfer schedule = new ScheduledTransfer();
+        schedule.setFromWalletId(walletId);
+        schedule.setToWalletId(request.toWalletId());
+        schedule.setAmount(request.amount());
+        schedule.setRecurrence(recurrence);
+        schedule.setStartAt(startAt);
+        schedule.setEndAt(request.endAt());
+        schedule.setMaxOccurrences(recurrence == TransferRecurrence.ONCE ? Integer.valueOf(1) : request.maxOccurrences());
+        schedule.setNextRunAt(startAt);
+        schedule.setStatus(ScheduleStatus.ACTIVE);
+        schedule.setIdempotencyKey(idempotencyKey);
+        ScheduledTransfer saved = scheduledTransferRepository.save(schedule);
+        log.info("Scheduled transfer created scheduleId={} nextRunAt={}", saved.getId(), saved.getNextRunAt());
+        return toResponse(saved);
+    }
+
+    public ScheduledTransferResponse getSchedule(Long walletId, Long scheduleId) {
+        return toResponse(findSchedule(walletId, scheduleId));
+    }
+
+    public List<ScheduledTransferResponse> listSchedules(Long walletId) {
+        return scheduledTransferRepository.findTop100ByFromWalletIdOrderByIdDesc(walletId).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    @Transactional
+    public ScheduledTransferResponse cancel(Long walletId, Long scheduleId) {
+        findSchedule(walletId, scheduleId);
+        if (scheduledTransferRepository.cancel(scheduleId) == 1) {
+            log.info("Scheduled transfer cancelled scheduleId={}", scheduleId);
+        }
+        ScheduledTransfer current = findSchedule(walletId, scheduleId);
+        if (current.getStatus() == ScheduleStatus.COMPLETED) {
+            throw new BusinessException("schedule is completed");
+        }
+        return toResponse(current);
+    }
+
+    /**
+     * Leases up to {@code batchSize} due schedules to the caller. Reading the due ids walks
+     * {@code idx_schedule_due} from its oldest entry. The lease update re-checks each row, so a row another
+     * instance leased in the meantime is left out of the batch and no occurrence runs twice.
+     */
+    @Transactional
+    public List<ScheduledTransfer> claimDue(Instant now) {
+        List<Long> dueIds = scheduledTransferRepository.findDueIds(ScheduleStatus.ACTIVE, now,
+                PageRequest.of(0, properties.batchSize()));
+        if (dueIds.isEmpty()) {
+            return List.of();
+        }
+        String token = UUID.randomUUID().toString();
+        int claimed = scheduledTransferRepository.claim(dueIds, token, now.plus(properties.lease()), now);
+        log.debug("Claimed {} of {} due schedules token={}", claimed, dueIds.size(), token);
+        return claimed == 0 ? List.of() : scheduledTransferRepository.findByLeaseToken(token);
+    }
+
+    /**
+     * Picks the occurrence a claimed schedule should run now. With {@link ScheduleProperties.CatchUp#RUN_ALL}
+     * that is always the schedule's current occurrence; with {@link ScheduleProperties.CatchUp#COALESCE} it is
+     * the latest occurrence already due, so a backlog left by downtime turns into a single transfer.
+     */
+    public long occurrenceToRun(ScheduledTransfer schedule, Instant now) {
+        long occurrence = schedule.getOccurrence();
+        if (properties.catchUp() == ScheduleProperties.CatchUp.RUN_ALL) {
+            return occurrence;
+        }
+        while (!isLast(schedule, occurrence + 1)
+                && !schedule.getRecurrence().occurrenceAt(schedule.getStartAt(), occurrence + 1).isAfter(now)) {
+            occurrence++;
+        }
+        if (occurrence > schedule.getOccurrence()) {
+            log.info("Coalescing missed occurrences scheduleId={} skipped={}",
+                    schedule.getId(), occurrence - schedule.getOccurrence());
+        }
+        return occurrence;
+    }
+
+    /**
+     * Records the outcome of {@code occurrence}, moves the schedule to the occurrence after it and releases
+     * the lease. A failed occurrence is skipped rather than retried.
+     */
+    @Transactional
+    public void completeOccurrence(ScheduledTransfer schedule, long occurrence, Long transferId, String error) {
+        long next = occurrence + 1;
+        Instant nextRunAt = schedule.getRecurrence().occurrenceAt(schedule.getStartAt(), next);
+        int updated = scheduledTransferRepository.advance(schedule.getId(), schedule.getLeaseToken(),
+                schedule.getOccurrence(), next, nextRunAt,
+                isLast(schedule, next) ? ScheduleStatus.COMPLETED : ScheduleStatus.ACTIVE,
+                transferId, error == null ? null : truncate(error));
+        if (updated == 0) {
+            log.warn("Lease lost before recording occurrence scheduleId={} occurrence={}",
+                    schedule.getId(), occurrence);
+        }
+    }
+
+    @Transactional
+    public void releaseLease(ScheduledTransfer schedule) {
+        scheduledTransferRepository.releaseLease(schedule.getId(), schedule.getLeaseToken());
+    }
+
+    public static String idempotencyKeyOf(ScheduledTransfer schedule, long occurrence) {
+        return IdempotencyKeys.scheduledOccurrence(schedule.getId(), occurrence);
+    }
+
+    /**
+     * @return whether the schedule has no occurrence numbered {@code occurrence}
+     */
+    private static boolean isLast(ScheduledTransfer schedule, long occurrence) {
+        if (schedule.getMaxOccurrences() != null && occurrence >= schedule.getMaxOccurrences()) {
+            return true;
+        }
+        return schedule.getEndAt() != null
+                && schedule.getRecurrence().occurrenceAt(schedule.getStartAt(), occurrence).isAfter(schedule.getEndAt());
+    }
+
+    private ScheduledTransfer findSchedule(Long walletId, Long scheduleId) {
+        return scheduledTransferRepository.findByIdAndFromWalletId(scheduleId, walletId)
+                .orElseThrow(() -> new NotFoundException("schedule not found"));
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private ScheduledTransferResponse toResponse(ScheduledTransfer schedule) {
+        return new ScheduledTransferResponse(
+                schedule.getId(),
+                schedule.getFromWalletId(),
+                schedule.getToWalletId(),
+                schedule.getAmount(),
+                schedule.getRecurrence(),
+                schedule.getStartAt(),
+                schedule.getEndAt(),
+                schedule.getMaxOccurrences(),
+                schedule.getOccurrence(),
+                schedule.getStatus() == ScheduleStatus.ACTIVE ? schedule.getNextRunAt() : null,
+                schedule.getStatus(),
+                schedule.getLastTransferId(),
+                schedule.getLastError(),
+                schedule.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package com.gurnek.wallet.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Hook invoked by {@link WalletService} after a balance change has been validated and before it is
+ * written through JPA, so an implementation can make the change durable ahead of the database commit.
+ */
+public interface TransferJournal {
+
+    void recordDeposit(Long walletId, BigDecimal amount);
+
+    void recordTransfer(Long fromWalletId, Long toWalletId, BigDecimal amount, String idempotencyKey);
+
+    /**
+     * A transfer between wallets of different currencies: {@code debitAmount} leaves the source wallet and
+     * {@code creditAmount} reaches the destination.
+     */
+    void recordConversion(Long fromWalletId, Long toWalletId, BigDecimal debitAmount, BigDecimal creditAmount,
+                          String idempotencyKey);
+
+    /**
+     * The debit leg of a cross-partition transfer: {@code amount} leaves the source wallet here, and the node that
+     * owns the destination journals the credit when it applies it.
+     */
+    void recordWithdrawal(Long fromWalletId, BigDecimal amount, String idempotencyKey);
+
+    static TransferJournal noop() {
+        return new TransferJournal() {
+            @Override
+            public void recordDeposit(Long walletId, BigDecimal amount) {
+            }
+
+            @Override
+            public void recordTransfer(Long fromWalletId, Long toWalletId, BigDecimal amount, String idempotencyKey) {
+            }
+
+            @Override
+            public void recordConversion(Long fromWalletId, Long toWalletId, BigDecimal debitAmount,
+                                         BigDecimal creditAmount, String idempotencyKey) {
+            }
+
+            @Override
+            public void recordWithdrawal(Long fromWalletId, BigDecimal amount, String idempotencyKey) {
+            }
+        };
+    }
+}
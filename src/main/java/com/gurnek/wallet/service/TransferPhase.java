@@ -0,0 +1,14 @@
+package com.gurnek.wallet.service;
+
+/**
+ * Phases of {@link WalletService#transfer} reported as {@link TransferPhaseEvent}s. {@code BALANCE_CHECK}
+ * includes currency conversion and the velocity check; {@code COMMIT} spans the database commit after the
+ * method returns.
+ */
+public enum TransferPhase {
+    IDEMPOTENCY_LOOKUP,
+    WALLET_LOAD,
+    BALANCE_CHECK,
+    FLUSH,
+    COMMIT
+}
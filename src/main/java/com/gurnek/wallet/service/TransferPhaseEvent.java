@@ -0,0 +1,74 @@
+package com.gurnek.wallet.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JFR event timing one {@link TransferPhase}. When no recording has the event enabled, {@link #start} and
+ * {@link #finish} cost a flag check and the instance is eliminated by escape analysis.
+ */
+@Name(TransferPhaseEvent.NAME)
+@Label("Transfer Phase")
+@Description("Duration of one phase of a wallet transfer")
+@Category({"Wallet", "Transfer"})
+@StackTrace(false)
+public class TransferPhaseEvent extends Event {
+
+    public static final String NAME = "com.gurnek.wallet.TransferPhase";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("From Wallet")
+    long fromWalletId;
+
+    @Label("To Wallet")
+    long toWalletId;
+
+    static TransferPhaseEvent start(TransferPhase phase, Long fromWalletId, Long toWalletId) {
+        TransferPhaseEvent event = new TransferPhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.name();
+            event.fromWalletId = fromWalletId;
+            event.toWalletId = toWalletId;
+            event.begin();
+        }
+        return event;
+    }
+
+    void finish() {
+        if (isEnabled()) {
+            commit();
+        }
+    }
+
+    /**
+     * Times the commit of the surrounding transaction, from {@code beforeCompletion} to {@code afterCompletion}.
+     */
+    static void timeCommit(Long fromWalletId, Long toWalletId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || !new TransferPhaseEvent().isEnabled()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private TransferPhaseEvent event;
+
+            @Override
+            public void beforeCompletion() {
+                event = start(TransferPhase.COMMIT, fromWalletId, toWalletId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (event != null && status == STATUS_COMMITTED) {
+                    event.finish();
+                }
+            }
+        });
+    }
+}
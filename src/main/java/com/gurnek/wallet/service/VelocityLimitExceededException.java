@@ -0,0 +1,7 @@
+package com.gurnek.wallet.service;
+
+public class VelocityLimitExceededException extends BusinessException {
+    public VelocityLimitExceededException(String message) {
+        super(message);
+    }
+}
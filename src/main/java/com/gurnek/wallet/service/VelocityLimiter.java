@@ -0,0 +1,19 @@
+package com.gurnek.wallet.service;
+
+import com.gurnek.wallet.domain.WalletTier;
+
+import java.math.BigDecimal;
+
+/**
+ * Hook invoked by {@link WalletService} once a transfer has passed its balance check. Implementations either
+ * count the debit against the sender's rolling window or throw {@link VelocityLimitExceededException}.
+ */
+public interface VelocityLimiter {
+
+    void checkAndRecord(Long walletId, WalletTier tier, BigDecimal amount);
+
+    static VelocityLimiter noop() {
+        return (walletId, tier, amount) -> {
+        };
+    }
+}
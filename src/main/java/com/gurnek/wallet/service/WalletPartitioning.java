@@ -0,0 +1,39 @@
+package com.gurnek.wallet.service;
+
+/**
+ * Tells {@link WalletService} which wallets live in this node's database and which ids to give new rows.
+ * The single-node default owns every wallet and leaves ids to the database.
+ */
+public interface WalletPartitioning {
+
+    boolean isRemote(Long walletId);
+
+    /**
+     * @return id for a new wallet, or {@code null} to use the database identity
+     */
+    Long assignWalletId();
+
+    /**
+     * @return id for a new transfer, or {@code null} to use the database identity
+     */
+    Long assignTransferId();
+
+    static WalletPartitioning singleNode() {
+        return new WalletPartitioning() {
+            @Override
+            public boolean isRemote(Long walletId) {
+                return false;
+            }
+
+            @Override
+            public Long assignWalletId() {
+                return null;
+            }
+
+            @Override
+            public Long assignTransferId() {
+                return null;
+            }
+        };
+    }
+}
@@ -5,10 +5,12 @@ import com.gurnek.wallet.api.dto.CreateUserResponse;
 import com.gurnek.wallet.api.dto.TransferRequest;
 import com.gurnek.wallet.api.dto.TransferResponse;
 import com.gurnek.wallet.api.dto.WalletResponse;
+import com.gurnek.wallet.domain.DepositTransaction;
 import com.gurnek.wallet.domain.TransferStatus;
 import com.gurnek.wallet.domain.TransferTransaction;
 import com.gurnek.wallet.domain.UserAccount;
 import com.gurnek.wallet.domain.Wallet;
+import com.gurnek.wallet.repository.DepositTransactionRepository;
 import com.gurnek.wallet.repository.TransferTransactionRepository;
 import com.gurnek.wallet.repository.UserAccountRepository;
 import com.gurnek.wallet.repository.WalletRepository;
@@ -18,6 +20,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 
 @Service
 public class WalletService {
@@ -26,26 +30,47 @@ public class WalletService {
     private final UserAccountRepository userAccountRepository;
     private final WalletRepository walletRepository;
     private final TransferTransactionRepository transferTransactionRepository;
+    private final DepositTransactionRepository depositTransactionRepository;
+    private final TransferJournal transferJournal;
+    private final VelocityLimiter velocityLimiter;
+    private final WalletPartitioning walletPartitioning;
+    private final FxRateProvider fxRateProvider;
 
     public WalletService(UserAccountRepository userAccountRepository,
                          WalletRepository walletRepository,
-                         TransferTransactionRepository transferTransactionRepository) {
+                         TransferTransactionRepository transferTransactionRepository,
+                         DepositTransactionRepository depositTransactionRepository,
+                         TransferJournal transferJournal,
+                         VelocityLimiter velocityLimiter,
+                         WalletPartitioning walletPartitioning,
+                         FxRateProvider fxRateProvider) {
         this.userAccountRepository = userAccountRepository;
         this.walletRepository = walletRepository;
         this.transferTransactionRepository = transferTransactionRepository;
+        this.depositTransactionRepository = depositTransactionRepository;
+        this.transferJournal = transferJournal;
+        this.velocityLimiter = velocityLimiter;
+        this.walletPartitioning = walletPartitioning;
+        this.fxRateProvider = fxRateProvider;
     }
 
     @Transactional
     public CreateUserResponse createUserWithWallet(CreateUserRequest request) {
         log.info("Creating user and wallet for email={}", request.email());
+        String currency = request.currency() == null ? Wallet.DEFAULT_CURRENCY : request.currency();
+        if (!fxRateProvider.supports(currency)) {
+            throw new BusinessException("unsupported currency " + currency);
+        }
         UserAccount user = new UserAccount();
         user.setFullName(request.fullName());
         user.setEmail(request.email());
         UserAccount savedUser = userAccountRepository.save(user);
 
         Wallet wallet = new Wallet();
+        wallet.setId(walletPartitioning.assignWalletId());
         wallet.setUserAccount(savedUser);
         wallet.setBalance(BigDecimal.ZERO);
+        wallet.setCurrency(currency);
         Wallet savedWallet = walletRepository.save(wallet);
 
         log.info("Created userId={} with walletId={}", savedUser.getId(), savedWallet.getId());
@@ -57,10 +82,16 @@ public class WalletService {
         log.info("Deposit request walletId={} amount={}", walletId, amount);
         Wallet wallet = walletRepository.findById(walletId)
                 .orElseThrow(() -> new NotFoundException("wallet not found"));
+        transferJournal.recordDeposit(walletId, amount);
         wallet.setBalance(wallet.getBalance().add(amount));
         Wallet saved = walletRepository.save(wallet);
+
+        DepositTransaction deposit = new DepositTransaction();
+        deposit.setWalletId(walletId);
+        deposit.setAmount(amount);
+        depositTransactionRepository.save(deposit);
         log.info("Deposit success walletId={} newBalance={}", saved.getId(), saved.getBalance());
-        return new WalletResponse(saved.getId(), saved.getBalance());
+        return new WalletResponse(saved.getId(), saved.getBalance(), saved.getCurrency());
     }
 
     @Transactional
@@ -72,40 +103,145 @@ public class WalletService {
             throw new BusinessException("fromWalletId and toWalletId cannot be the same");
         }
 
+        TransferPhaseEvent lookup = TransferPhaseEvent.start(
+                TransferPhase.IDEMPOTENCY_LOOKUP, request.fromWalletId(), request.toWalletId());
         TransferTransaction existing = transferTransactionRepository.findByIdempotencyKey(idempotencyKey).orElse(null);
+        lookup.finish();
         if (existing != null) {
-            log.info("Idempotent replay detected for key={} transferId={}", idempotencyKey, existing.getId());
-            return toResponse(existing);
+            return replayOf(existing, request.fromWalletId(), request.toWalletId(), request.amount(), idempotencyKey);
         }
 
+        TransferPhaseEvent load = TransferPhaseEvent.start(
+                TransferPhase.WALLET_LOAD, request.fromWalletId(), request.toWalletId());
         Wallet fromWallet = walletRepository.findById(request.fromWalletId())
                 .orElseThrow(() -> new NotFoundException("source wallet not found"));
-        Wallet toWallet = walletRepository.findById(request.toWalletId())
+        boolean remoteDestination = walletPartitioning.isRemote(request.toWalletId());
+        Wallet toWallet = remoteDestination ? null : walletRepository.findById(request.toWalletId())
                 .orElseThrow(() -> new NotFoundException("destination wallet not found"));
+        load.finish();
 
-        if (fromWallet.getBalance().compareTo(request.amount()) < 0) {
-            log.warn("Transfer rejected for insufficient balance walletId={} balance={} requested={}",
-                    request.fromWalletId(), fromWallet.getBalance(), request.amount());
+        TransferPhaseEvent check = TransferPhaseEvent.start(
+                TransferPhase.BALANCE_CHECK, request.fromWalletId(), request.toWalletId());
+        if (fromWallet.getAvailableBalance().compareTo(request.amount()) < 0) {
+            log.warn("Transfer rejected for insufficient balance walletId={} balance={} held={} requested={}",
+                    request.fromWalletId(), fromWallet.getBalance(), fromWallet.getHeldBalance(), request.amount());
             throw new BusinessException("insufficient balance");
         }
+        FxConversion conversion = remoteDestination || fromWallet.getCurrency().equals(toWallet.getCurrency())
+                ? null
+                : fxRateProvider.convert(fromWallet.getCurrency(), toWallet.getCurrency(), request.amount());
+        velocityLimiter.checkAndRecord(request.fromWalletId(), fromWallet.getTier(), request.amount());
+        check.finish();
 
+        BigDecimal creditedAmount = conversion == null ? request.amount() : conversion.creditedAmount();
+        if (remoteDestination) {
+            transferJournal.recordWithdrawal(request.fromWalletId(), request.amount(), idempotencyKey);
+        } else if (conversion == null) {
+            transferJournal.recordTransfer(request.fromWalletId(), request.toWalletId(), request.amount(), idempotencyKey);
+        } else {
+            transferJournal.recordConversion(request.fromWalletId(), request.toWalletId(), request.amount(),
+                    creditedAmount, idempotencyKey);
+        }
         fromWallet.setBalance(fromWallet.getBalance().subtract(request.amount()));
-        toWallet.setBalance(toWallet.getBalance().add(request.amount()));
         walletRepository.save(fromWallet);
-        walletRepository.save(toWallet);
+        if (!remoteDestination) {
+            toWallet.setBalance(toWallet.getBalance().add(creditedAmount));
+            walletRepository.save(toWallet);
+        }
 
         TransferTransaction tx = new TransferTransaction();
+        tx.setId(walletPartitioning.assignTransferId());
         tx.setFromWalletId(request.fromWalletId());
         tx.setToWalletId(request.toWalletId());
         tx.setAmount(request.amount());
-        tx.setStatus(TransferStatus.SUCCESS);
+        applyConversion(tx, conversion);
+        tx.setStatus(remoteDestination ? TransferStatus.DEBIT_HELD : TransferStatus.SUCCESS);
         tx.setIdempotencyKey(idempotencyKey);
         TransferTransaction saved = transferTransactionRepository.save(tx);
-        log.info("Transfer success transferId={} fromWalletId={} toWalletId={} amount={}",
+        TransferPhaseEvent flush = TransferPhaseEvent.start(
+                TransferPhase.FLUSH, request.fromWalletId(), request.toWalletId());
+        transferTransactionRepository.flush();
+        flush.finish();
+        TransferPhaseEvent.timeCommit(request.fromWalletId(), request.toWalletId());
+        log.info("Transfer {} transferId={} fromWalletId={} toWalletId={} amount={}",
+                remoteDestination ? "debit held for remote credit" : "success",
                 saved.getId(), saved.getFromWalletId(), saved.getToWalletId(), saved.getAmount());
         return toResponse(saved);
     }
 
+    /**
+     * Credit leg of a cross-partition transfer, applied on the node that owns the destination wallet.
+     * Retries with the same {@code idempotencyKey} return the original credit. An {@code amount} in another
+     * {@code currency} is converted here, since only this node knows the destination wallet's currency.
+     */
+    @Transactional
+    public TransferResponse creditRemoteTransfer(Long fromWalletId, Long toWalletId, BigDecimal amount,
+                                                 String currency, String idempotencyKey) {
+        log.info("Remote credit request fromWalletId={} toWalletId={} amount={} idempotencyKey={}",
+                fromWalletId, toWalletId, amount, idempotencyKey);
+        TransferTransaction existing = transferTransactionRepository.findByIdempotencyKey(idempotencyKey).orElse(null);
+        if (existing != null) {
+            return replayOf(existing, fromWalletId, toWalletId, amount, idempotencyKey);
+        }
+        Wallet toWallet = walletRepository.findById(toWalletId)
+                .orElseThrow(() -> new NotFoundException("destination wallet not found"));
+        FxConversion conversion = currency == null || currency.equals(toWallet.getCurrency())
+                ? null
+                : fxRateProvider.convert(currency, toWallet.getCurrency(), amount);
+        BigDecimal creditedAmount = conversion == null ? amount : conversion.creditedAmount();
+        transferJournal.recordDeposit(toWalletId, creditedAmount);
+        toWallet.setBalance(toWallet.getBalance().add(creditedAmount));
+        walletRepository.save(toWallet);
+
+        TransferTransaction tx = new TransferTransaction();
+        tx.setId(walletPartitioning.assignTransferId());
+        tx.setFromWalletId(fromWalletId);
+        tx.setToWalletId(toWalletId);
+        tx.setAmount(amount);
+        applyConversion(tx, conversion);
+        tx.setStatus(TransferStatus.CREDITED);
+        tx.setIdempotencyKey(idempotencyKey);
+        TransferTransaction saved = transferTransactionRepository.save(tx);
+        log.info("Remote credit success transferId={} toWalletId={} newBalance={}",
+                saved.getId(), toWalletId, toWallet.getBalance());
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public TransferResponse confirmRemoteTransfer(Long transferId) {
+        if (transferTransactionRepository.transitionStatus(transferId, TransferStatus.DEBIT_HELD, TransferStatus.SUCCESS) == 1) {
+            log.info("Remote transfer confirmed transferId={}", transferId);
+        }
+        return getTransfer(transferId);
+    }
+
+    /**
+     * Returns the held debit to the source wallet after the destination node rejected the credit.
+     */
+    @Transactional
+    public TransferResponse compensateRemoteTransfer(Long transferId) {
+        if (transferTransactionRepository.transitionStatus(transferId, TransferStatus.DEBIT_HELD, TransferStatus.COMPENSATED) == 1) {
+            TransferTransaction tx = transferTransactionRepository.findById(transferId)
+                    .orElseThrow(() -> new NotFoundException("transfer not found"));
+            Wallet fromWallet = walletRepository.findById(tx.getFromWalletId())
+                    .orElseThrow(() -> new NotFoundException("source wallet not found"));
+            transferJournal.recordDeposit(tx.getFromWalletId(), tx.getAmount());
+            fromWallet.setBalance(fromWallet.getBalance().add(tx.getAmount()));
+            walletRepository.save(fromWallet);
+            log.warn("Remote transfer compensated transferId={} fromWalletId={} amount={}",
+                    transferId, tx.getFromWalletId(), tx.getAmount());
+        }
+        return getTransfer(transferId);
+    }
+
+    public List<TransferResponse> findHeldRemoteTransfers(Instant createdBefore) {
+        return transferTransactionRepository
+                .findTop100ByStatusAndCreatedAtBeforeOrderByIdAsc(TransferStatus.DEBIT_HELD, createdBefore)
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
     public TransferResponse getTransfer(Long transferId) {
         log.info("Fetching transfer transferId={}", transferId);
         TransferTransaction tx = transferTransactionRepository.findById(transferId)
@@ -117,7 +253,31 @@ public class WalletService {
         log.info("Fetching wallet walletId={}", walletId);
         Wallet wallet = walletRepository.findById(walletId)
                 .orElseThrow(() -> new NotFoundException("wallet not found"));
-        return new WalletResponse(wallet.getId(), wallet.getBalance());
+        return new WalletResponse(wallet.getId(), wallet.getBalance(), wallet.getCurrency());
+    }
+
+    static void applyConversion(TransferTransaction tx, FxConversion conversion) {
+        if (conversion != null) {
+            tx.setCreditedAmount(conversion.creditedAmount());
+            tx.setFxRate(conversion.rate());
+            tx.setFxRateVersion(conversion.rateVersion());
+        }
+    }
+
+    /**
+     * Returns the transfer already stored under {@code idempotencyKey}, refusing to treat a different transfer that
+     * happens to reuse the key as a replay.
+     */
+    private TransferResponse replayOf(TransferTransaction existing, Long fromWalletId, Long toWalletId,
+                                      BigDecimal amount, String idempotencyKey) {
+        if (!existing.getFromWalletId().equals(fromWalletId)
+                || !existing.getToWalletId().equals(toWalletId)
+                || existing.getAmount().compareTo(amount) != 0) {
+            log.warn("Idempotency key reused for a different transfer key={} transferId={}", idempotencyKey, existing.getId());
+            throw new BusinessException("idempotency key already used for a different transfer");
+        }
+        log.info("Idempotent replay detected for key={} transferId={}", idempotencyKey, existing.getId());
+        return toResponse(existing);
     }
 
     private TransferResponse toResponse(TransferTransaction tx) {
@@ -126,6 +286,8 @@ public class WalletService {
                 tx.getFromWalletId(),
                 tx.getToWalletId(),
                 tx.getAmount(),
+                tx.getCreditedAmount() == null ? tx.getAmount() : tx.getCreditedAmount(),
+                tx.getFxRateVersion(),
                 tx.getStatus(),
                 tx.getCreatedAt()
         );
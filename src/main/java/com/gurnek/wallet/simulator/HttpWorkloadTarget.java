@@ -0,0 +1,102 @@
+package com.gurnek.wallet.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Drives a running instance over its REST API and classifies failures from status code and error body.
+ */
+public class HttpWorkloadTarget implements WorkloadTarget {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+
+    public HttpWorkloadTarget(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    @Override
+    public long createUserWithWallet(String fullName, String email) {
+        return send(post("/api/v1/users", Map.of("fullName", fullName, "email", email)).build())
+                .get("walletId").asLong();
+    }
+
+    @Override
+    public void deposit(long walletId, BigDecimal amount) {
+        send(post("/api/v1/wallets/" + walletId + "/deposit", Map.of("amount", amount)).build());
+    }
+
+    @Override
+    public long transfer(long fromWalletId, long toWalletId, BigDecimal amount, String idempotencyKey) {
+        Map<String, Object> body = Map.of("fromWalletId", fromWalletId, "toWalletId", toWalletId, "amount", amount);
+        return send(post("/api/v1/transfers", body).header("X-Idempotency-Key", idempotencyKey).build())
+                .get("transferId").asLong();
+    }
+
+    @Override
+    public void getWallet(long walletId) {
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/wallets/" + walletId)).timeout(TIMEOUT).GET().build());
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, ?> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException ex) {
+            throw new WorkloadException(Outcome.ERROR, ex.getMessage());
+        }
+    }
+
+    private JsonNode send(HttpRequest request) {
+        HttpResponse<byte[]> response;
+        JsonNode body;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            body = response.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+        } catch (IOException ex) {
+            throw new WorkloadException(Outcome.ERROR, ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WorkloadException(Outcome.ERROR, "interrupted");
+        }
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return body;
+        }
+        String error = body.path("error").asText("HTTP " + status);
+        throw new WorkloadException(classify(status, error), error);
+    }
+
+    private Outcome classify(int status, String error) {
+        return switch (status) {
+            case 400 -> {
+                if ("insufficient balance".equals(error)) {
+                    yield Outcome.INSUFFICIENT_FUNDS;
+                }
+                yield error.startsWith("velocity limit") ? Outcome.VELOCITY_LIMITED : Outcome.REJECTED;
+            }
+            case 404 -> Outcome.NOT_FOUND;
+            case 409 -> error.startsWith("concurrent update") ? Outcome.LOCK_CONFLICT : Outcome.IDEMPOTENCY_RACE;
+            default -> Outcome.ERROR;
+        };
+    }
+}
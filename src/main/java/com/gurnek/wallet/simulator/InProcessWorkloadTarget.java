@@ -0,0 +1,66 @@
+package com.gurnek.wallet.simulator;
+
+import com.gurnek.wallet.api.dto.CreateUserRequest;
+import com.gurnek.wallet.api.dto.TransferRequest;
+import com.gurnek.wallet.service.BusinessException;
+import com.gurnek.wallet.service.NotFoundException;
+import com.gurnek.wallet.service.VelocityLimitExceededException;
+import com.gurnek.wallet.service.WalletService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+/**
+ * Drives {@link WalletService} directly, so results exclude HTTP and JSON overhead.
+ */
+public class InProcessWorkloadTarget implements WorkloadTarget {
+
+    private final WalletService walletService;
+
+    public InProcessWorkloadTarget(WalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    @Override
+    public long createUserWithWallet(String fullName, String email) {
+        return call(() -> walletService.createUserWithWallet(new CreateUserRequest(fullName, email, null)).walletId());
+    }
+
+    @Override
+    public void deposit(long walletId, BigDecimal amount) {
+        call(() -> walletService.deposit(walletId, amount));
+    }
+
+    @Override
+    public long transfer(long fromWalletId, long toWalletId, BigDecimal amount, String idempotencyKey) {
+        return call(() -> walletService.transfer(new TransferRequest(fromWalletId, toWalletId, amount), idempotencyKey)
+                .transferId());
+    }
+
+    @Override
+    public void getWallet(long walletId) {
+        call(() -> walletService.getWallet(walletId));
+    }
+
+    private <T> T call(Supplier<T> operation) {
+        try {
+            return operation.get();
+        } catch (NotFoundException ex) {
+            throw new WorkloadException(Outcome.NOT_FOUND, ex.getMessage());
+        } catch (VelocityLimitExceededException ex) {
+            throw new WorkloadException(Outcome.VELOCITY_LIMITED, ex.getMessage());
+        } catch (BusinessException ex) {
+            Outcome outcome = "insufficient balance".equals(ex.getMessage()) ? Outcome.INSUFFICIENT_FUNDS : Outcome.REJECTED;
+            throw new WorkloadException(outcome, ex.getMessage());
+        } catch (ObjectOptimisticLockingFailureException | PessimisticLockingFailureException ex) {
+            throw new WorkloadException(Outcome.LOCK_CONFLICT, ex.getMessage());
+        } catch (DataIntegrityViolationException ex) {
+            throw new WorkloadException(Outcome.IDEMPOTENCY_RACE, ex.getMessage());
+        } catch (RuntimeException ex) {
+            throw new WorkloadException(Outcome.ERROR, ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.gurnek.wallet.simulator;
+
+public enum Outcome {
+    SUCCESS,
+    REPLAY,
+    INSUFFICIENT_FUNDS,
+    VELOCITY_LIMITED,
+    LOCK_CONFLICT,
+    IDEMPOTENCY_RACE,
+    NOT_FOUND,
+    REJECTED,
+    ERROR
+}
@@ -0,0 +1,26 @@
+package com.gurnek.wallet.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gurnek.wallet.service.WalletService;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "wallet.simulator", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SimulatorProperties.class)
+public class SimulatorConfiguration {
+
+    @Bean
+    public ApplicationRunner workloadSimulatorRunner(SimulatorProperties properties, WalletService walletService,
+                                                     ObjectMapper objectMapper) {
+        return args -> {
+            WorkloadTarget target = properties.mode() == SimulatorProperties.Mode.HTTP
+                    ? new HttpWorkloadTarget(properties.baseUrl(), objectMapper)
+                    : new InProcessWorkloadTarget(walletService);
+            new WorkloadSimulator(target, properties).run();
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.gurnek.wallet.simulator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "wallet.simulator")
+public record SimulatorProperties(
+        @DefaultValue("false")
+        boolean enabled,
+        @DefaultValue("IN_PROCESS")
+        Mode mode,
+        @DefaultValue("http://localhost:8080")
+        String baseUrl,
+        @DefaultValue("100")
+        int users,
+        @DefaultValue("100.00")
+        BigDecimal initialBalance,
+        @DefaultValue("1.00")
+        BigDecimal transferAmount,
+        @DefaultValue("0.99")
+        double zipfTheta,
+        @DefaultValue("0.05")
+        double duplicateKeyRate,
+        @DefaultValue("0.2")
+        double readRatio,
+        @DefaultValue("200")
+        double arrivalRatePerSecond,
+        @DefaultValue("30s")
+        Duration duration,
+        @DefaultValue("64")
+        int maxConcurrency,
+        @DefaultValue("42")
+        long seed
+) {
+    public enum Mode {
+        IN_PROCESS,
+        HTTP
+    }
+}
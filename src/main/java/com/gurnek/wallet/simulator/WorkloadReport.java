@@ -0,0 +1,42 @@
+package com.gurnek.wallet.simulator;
+
+import com.gurnek.wallet.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Result of one {@link WorkloadSimulator} run. Latencies are in microseconds; {@code responseTimes} are
+ * measured from each operation's intended start, {@code serviceTimes} from when a worker picked it up.
+ */
+public record WorkloadReport(
+        SimulatorProperties.Mode mode,
+        int users,
+        long issued,
+        long completed,
+        Duration elapsed,
+        double throughputPerSecond,
+        Map<Outcome, Long> outcomes,
+        Map<Operation, LatencyHistogram.Summary> responseTimes,
+        Map<Operation, LatencyHistogram.Summary> serviceTimes
+) {
+    public enum Operation {
+        TRANSFER,
+        READ
+    }
+
+    public long count(Outcome outcome) {
+        return outcomes.getOrDefault(outcome, 0L);
+    }
+
+    public String describe() {
+        StringBuilder text = new StringBuilder()
+                .append(String.format("mode=%s users=%d issued=%d completed=%d elapsed=%dms throughput=%.1f ops/s%n",
+                        mode, users, issued, completed, elapsed.toMillis(), throughputPerSecond))
+                .append("outcomes ").append(outcomes).append(System.lineSeparator());
+        responseTimes.forEach((operation, summary) -> text
+                .append(String.format("%-8s response(us) %s%n", operation, summary))
+                .append(String.format("%-8s service(us)  %s%n", operation, serviceTimes.get(operation))));
+        return text.toString();
+    }
+}
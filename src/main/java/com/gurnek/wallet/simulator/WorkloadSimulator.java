@@ -0,0 +1,190 @@
+package com.gurnek.wallet.simulator;
+
+import com.gurnek.wallet.metrics.LatencyHistogram;
+import com.gurnek.wallet.simulator.WorkloadReport.Operation;
+import com.gurnek.wallet.simulator.WorkloadTarget.WorkloadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Provisions wallets and then drives an open-loop mix of transfers and reads against a {@link WorkloadTarget}.
+ * <p>
+ * Operations are scheduled at a fixed arrival rate regardless of how fast earlier ones complete, and response
+ * time is measured from the scheduled start, so a stalled target shows up as queueing delay instead of being
+ * hidden by a slower request rate. Senders are Zipf-distributed over the provisioned wallets; a configurable
+ * fraction of transfers re-sends an earlier request with the same idempotency key.
+ */
+public class WorkloadSimulator {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkloadSimulator.class);
+    private static final int DUPLICATE_WINDOW = 1024;
+
+    private final WorkloadTarget target;
+    private final SimulatorProperties properties;
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+    private final Map<Operation, LatencyHistogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LatencyHistogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<String, Long> transferIdsByKey = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+
+    public WorkloadSimulator(WorkloadTarget target, SimulatorProperties properties) {
+        if (properties.users() < 2) {
+            throw new IllegalArgumentException("at least two users are required");
+        }
+        if (properties.arrivalRatePerSecond() <= 0) {
+            throw new IllegalArgumentException("arrivalRatePerSecond must be positive");
+        }
+        this.target = target;
+        this.properties = properties;
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, new LatencyHistogram());
+            serviceTimes.put(operation, new LatencyHistogram());
+        }
+    }
+
+    public WorkloadReport run() throws InterruptedException {
+        long[] walletIds = provision();
+        SplittableRandom random = new SplittableRandom(properties.seed());
+        ZipfianGenerator senders = new ZipfianGenerator(walletIds.length, properties.zipfTheta());
+        TransferSpec[] recent = new TransferSpec[DUPLICATE_WINDOW];
+        int recentCount = 0;
+        String keyPrefix = "sim-" + UUID.randomUUID() + "-";
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(properties.maxConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "simulator-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / properties.arrivalRatePerSecond());
+        long durationNanos = properties.duration().toNanos();
+        log.info("Simulation started mode={} users={} arrivalRate={}/s duration={}",
+                properties.mode(), walletIds.length, properties.arrivalRatePerSecond(), properties.duration());
+        long start = System.nanoTime();
+        long issued = 0;
+        try {
+            for (long intended = start; intended - start < durationNanos; intended += intervalNanos) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = intended;
+                if (random.nextDouble() < properties.readRatio()) {
+                    long walletId = walletIds[random.nextInt(walletIds.length)];
+                    workers.execute(() -> execute(Operation.READ, intendedStart, () -> {
+                        target.getWallet(walletId);
+                        return Outcome.SUCCESS;
+                    }));
+                } else {
+                    TransferSpec spec;
+                    if (recentCount > 0 && random.nextDouble() < properties.duplicateKeyRate()) {
+                        spec = recent[random.nextInt(Math.min(recentCount, DUPLICATE_WINDOW))];
+                    } else {
+                        spec = nextTransfer(random, senders, walletIds, keyPrefix + issued);
+                        recent[recentCount++ % DUPLICATE_WINDOW] = spec;
+                    }
+                    workers.execute(() -> execute(Operation.TRANSFER, intendedStart, () -> transfer(spec)));
+                }
+                issued++;
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(properties.duration().toMillis() + 60_000, TimeUnit.MILLISECONDS)) {
+                log.warn("Simulation workers did not drain in time; reporting partial results");
+                workers.shutdownNow();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        WorkloadReport report = report(walletIds.length, issued, elapsed);
+        log.info("Simulation finished{}{}", System.lineSeparator(), report.describe());
+        return report;
+    }
+
+    private long[] provision() {
+        long[] walletIds = new long[properties.users()];
+        String runId = UUID.randomUUID().toString();
+        for (int i = 0; i < walletIds.length; i++) {
+            walletIds[i] = target.createUserWithWallet("Simulated User " + i, "sim-" + runId + "-" + i + "@example.com");
+            if (properties.initialBalance().signum() > 0) {
+                target.deposit(walletIds[i], properties.initialBalance());
+            }
+        }
+        log.info("Provisioned {} simulated wallets with initialBalance={}", walletIds.length, properties.initialBalance());
+        return walletIds;
+    }
+
+    private TransferSpec nextTransfer(SplittableRandom random, ZipfianGenerator senders, long[] walletIds, String key) {
+        int from = (int) senders.next(random.nextDouble());
+        int to = random.nextInt(walletIds.length - 1);
+        if (to >= from) {
+            to++;
+        }
+        return new TransferSpec(walletIds[from], walletIds[to], key);
+    }
+
+    private Outcome transfer(TransferSpec spec) {
+        long transferId = target.transfer(spec.fromWalletId(), spec.toWalletId(), properties.transferAmount(),
+                spec.idempotencyKey());
+        Long first = transferIdsByKey.putIfAbsent(spec.idempotencyKey(), transferId);
+        return first == null ? Outcome.SUCCESS : Outcome.REPLAY;
+    }
+
+    private void execute(Operation operation, long intendedStart, OutcomeSupplier body) {
+        long serviceStart = System.nanoTime();
+        Outcome outcome;
+        try {
+            outcome = body.get();
+        } catch (WorkloadException ex) {
+            outcome = ex.outcome();
+        } catch (RuntimeException ex) {
+            log.debug("Simulated {} failed", operation, ex);
+            outcome = Outcome.ERROR;
+        }
+        long end = System.nanoTime();
+        responseTimes.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(end - intendedStart));
+        serviceTimes.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(end - serviceStart));
+        outcomes.get(outcome).increment();
+        completed.increment();
+    }
+
+    private WorkloadReport report(int users, long issued, Duration elapsed) {
+        Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+        outcomes.forEach((outcome, count) -> {
+            if (count.sum() > 0) {
+                counts.put(outcome, count.sum());
+            }
+        });
+        Map<Operation, LatencyHistogram.Summary> response = new EnumMap<>(Operation.class);
+        Map<Operation, LatencyHistogram.Summary> service = new EnumMap<>(Operation.class);
+        responseTimes.forEach((operation, histogram) -> response.put(operation, histogram.summary()));
+        serviceTimes.forEach((operation, histogram) -> service.put(operation, histogram.summary()));
+        long done = completed.sum();
+        double seconds = elapsed.toNanos() / 1e9;
+        return new WorkloadReport(properties.mode(), users, issued, done, elapsed, done / seconds,
+                Map.copyOf(counts), Map.copyOf(response), Map.copyOf(service));
+    }
+
+    private record TransferSpec(long fromWalletId, long toWalletId, String idempotencyKey) {
+    }
+
+    @FunctionalInterface
+    private interface OutcomeSupplier {
+        Outcome get();
+    }
+}
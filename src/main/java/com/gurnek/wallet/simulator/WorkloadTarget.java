@@ -0,0 +1,35 @@
+package com.gurnek.wallet.simulator;
+
+import java.math.BigDecimal;
+
+/**
+ * System under test for {@link WorkloadSimulator}. Failed operations throw {@link WorkloadException}
+ * carrying their classified {@link Outcome}.
+ */
+public interface WorkloadTarget {
+
+    long createUserWithWallet(String fullName, String email);
+
+    void deposit(long walletId, BigDecimal amount);
+
+    /**
+     * @return id of the transfer that now owns {@code idempotencyKey}
+     */
+    long transfer(long fromWalletId, long toWalletId, BigDecimal amount, String idempotencyKey);
+
+    void getWallet(long walletId);
+
+    class WorkloadException extends RuntimeException {
+
+        private final Outcome outcome;
+
+        public WorkloadException(Outcome outcome, String message) {
+            super(message, null, false, false);
+            this.outcome = outcome;
+        }
+
+        public Outcome outcome() {
+            return outcome;
+        }
+    }
+}
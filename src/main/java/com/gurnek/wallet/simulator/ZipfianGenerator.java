@@ -0,0 +1,55 @@
+package com.gurnek.wallet.simulator;
+
+/**
+ * Zipf-distributed ranks in {@code [0, items)} using the Gray et al. rejection-free method (as in YCSB).
+ * Rank 0 is the hottest item; {@code theta = 0} degrades to a uniform distribution.
+ */
+public final class ZipfianGenerator {
+
+    private final long items;
+    private final double theta;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+
+    public ZipfianGenerator(long items, double theta) {
+        if (items < 1) {
+            throw new IllegalArgumentException("items must be positive");
+        }
+        if (theta < 0 || theta >= 1) {
+            throw new IllegalArgumentException("theta must be in [0, 1)");
+        }
+        this.items = items;
+        this.theta = theta;
+        this.zetaN = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        double zeta2 = zeta(Math.min(2, items), theta);
+        this.eta = items < 2 ? 0 : (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetaN);
+    }
+
+    /**
+     * @param uniform a uniform random value in {@code [0, 1)}
+     */
+    public long next(double uniform) {
+        if (theta == 0) {
+            return (long) (uniform * items);
+        }
+        double uz = uniform * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (items > 1 && uz < 1.0 + Math.pow(0.5, theta)) {
+            return 1;
+        }
+        long rank = (long) (items * Math.pow(eta * uniform - eta + 1, alpha));
+        return Math.min(rank, items - 1);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1.0 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,140 @@
+package com.gurnek.wallet.velocity;
+
+import com.gurnek.wallet.domain.WalletTier;
+import com.gurnek.wallet.service.VelocityLimitExceededException;
+import com.gurnek.wallet.service.VelocityLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Enforces per-tier transfer count and amount limits over a rolling window without querying the ledger.
+ * <p>
+ * Each sending wallet gets a {@link WindowCounter}. A check and the record that follows it happen under that
+ * wallet's monitor, so concurrent transfers from one wallet cannot both slip under a limit; other wallets are
+ * unaffected. A recorded debit is released again if the surrounding transaction rolls back. Counters are
+ * rebuilt from {@code transfer_transaction} on startup and dropped once idle for a full window.
+ */
+public class SlidingWindowVelocityLimiter implements VelocityLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(SlidingWindowVelocityLimiter.class);
+    private static final String RECENT_TRANSFERS_SQL = "SELECT from_wallet_id, CAST(amount * 100 AS BIGINT), created_at "
+            + "FROM transfer_transaction WHERE created_at >= ? AND status IN ('SUCCESS', 'DEBIT_HELD')";
+
+    private final VelocityProperties properties;
+    private final LongSupplier clock;
+    private final long bucketMillis;
+    private final Map<Long, WindowCounter> counters = new ConcurrentHashMap<>();
+
+    public SlidingWindowVelocityLimiter(VelocityProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.bucketMillis = properties.bucketMillis();
+    }
+
+    @Override
+    public void checkAndRecord(Long walletId, WalletTier tier, BigDecimal amount) {
+        VelocityProperties.Limit limit = properties.tiers().get(tier);
+        if (limit == null || (limit.maxTransfers() == null && limit.maxAmount() == null)) {
+            return;
+        }
+        long minorUnits = toMinorUnits(amount);
+        long epoch = currentEpoch();
+        while (true) {
+            WindowCounter counter = counters.computeIfAbsent(walletId, id -> new WindowCounter(properties.buckets()));
+            synchronized (counter) {
+                if (counter.isRetired()) {
+                    continue;
+                }
+                VelocityUsage usage = counter.usage(epoch);
+                if (limit.maxTransfers() != null && usage.transfers() + 1 > limit.maxTransfers()) {
+                    log.warn("Velocity limit hit walletId={} tier={} transfers={} maxTransfers={}",
+                            walletId, tier, usage.transfers(), limit.maxTransfers());
+                    throw new VelocityLimitExceededException("velocity limit exceeded: too many transfers");
+                }
+                if (limit.maxAmount() != null && usage.amountMinorUnits() + minorUnits > toMinorUnits(limit.maxAmount())) {
+                    log.warn("Velocity limit hit walletId={} tier={} amount={} maxAmount={}",
+                            walletId, tier, BigDecimal.valueOf(usage.amountMinorUnits(), 2), limit.maxAmount());
+                    throw new VelocityLimitExceededException("velocity limit exceeded: transfer amount too high");
+                }
+                counter.add(epoch, 1, minorUnits);
+            }
+            releaseOnRollback(counter, epoch, minorUnits);
+            return;
+        }
+    }
+
+    public VelocityUsage usage(long walletId) {
+        WindowCounter counter = counters.get(walletId);
+        return counter == null ? new VelocityUsage(0, 0) : counter.usage(currentEpoch());
+    }
+
+    public int trackedWallets() {
+        return counters.size();
+    }
+
+    /**
+     * Replays debits made within the current window into the counters. Only outgoing transfers count:
+     * {@code CREDITED} rows are the destination leg of another node's transfer, and {@code COMPENSATED} debits
+     * were returned to the sender.
+     */
+    public void rebuild(JdbcTemplate jdbcTemplate) {
+        long now = clock.getAsLong();
+        long since = (currentEpoch() - properties.buckets() + 1) * bucketMillis;
+        long[] rows = new long[1];
+        jdbcTemplate.query(RECENT_TRANSFERS_SQL, rs -> {
+            long createdAt = rs.getTimestamp(3).getTime();
+            if (createdAt <= now) {
+                WindowCounter counter = counters.computeIfAbsent(rs.getLong(1), id -> new WindowCounter(properties.buckets()));
+                synchronized (counter) {
+                    counter.add(createdAt / bucketMillis, 1, rs.getLong(2));
+                }
+                rows[0]++;
+            }
+        }, new Timestamp(since));
+        log.info("Velocity counters rebuilt transfers={} wallets={} window={}", rows[0], counters.size(), properties.window());
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.velocity.eviction-interval:PT1M}")
+    public void evictIdle() {
+        long epoch = currentEpoch();
+        int before = counters.size();
+        counters.entrySet().removeIf(entry -> entry.getValue().retireIfIdle(epoch));
+        int evicted = before - counters.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle velocity counters", evicted);
+        }
+    }
+
+    private long currentEpoch() {
+        return clock.getAsLong() / bucketMillis;
+    }
+
+    private void releaseOnRollback(WindowCounter counter, long epoch, long minorUnits) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    counter.release(epoch, minorUnits);
+                }
+            }
+        });
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,36 @@
+package com.gurnek.wallet.velocity;
+
+import com.gurnek.wallet.service.VelocityLimiter;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.velocity", name = "enabled", havingValue = "true")
+    public SlidingWindowVelocityLimiter slidingWindowVelocityLimiter(VelocityProperties properties) {
+        return new SlidingWindowVelocityLimiter(properties, System::currentTimeMillis);
+    }
+
+    /**
+     * Runs after every singleton, including the JPA schema setup, and before the web server accepts traffic.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.velocity", name = "enabled", havingValue = "true")
+    public SmartInitializingSingleton velocityCounterRebuild(SlidingWindowVelocityLimiter limiter,
+                                                             JdbcTemplate jdbcTemplate) {
+        return () -> limiter.rebuild(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.velocity", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public VelocityLimiter velocityLimiter() {
+        return VelocityLimiter.noop();
+    }
+}
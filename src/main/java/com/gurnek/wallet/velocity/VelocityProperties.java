@@ -0,0 +1,42 @@
+package com.gurnek.wallet.velocity;
+
+import com.gurnek.wallet.domain.WalletTier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Tiers without an entry, and limits left unset, are not restricted.
+ */
+@ConfigurationProperties(prefix = "wallet.velocity")
+public record VelocityProperties(
+        @DefaultValue("false")
+        boolean enabled,
+        @DefaultValue("1h")
+        Duration window,
+        @DefaultValue("60")
+        int buckets,
+        @DefaultValue("PT1M")
+        Duration evictionInterval,
+        Map<WalletTier, Limit> tiers
+) {
+    public VelocityProperties {
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("wallet.velocity.window must be at least one millisecond per bucket");
+        }
+        tiers = tiers == null ? Map.of() : Map.copyOf(tiers);
+    }
+
+    public long bucketMillis() {
+        return window.toMillis() / buckets;
+    }
+
+    public record Limit(
+            Integer maxTransfers,
+            BigDecimal maxAmount
+    ) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.gurnek.wallet.velocity;
+
+public record VelocityUsage(
+        long transfers,
+        long amountMinorUnits
+) {
+}
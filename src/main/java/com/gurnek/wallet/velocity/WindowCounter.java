@@ -0,0 +1,92 @@
+package com.gurnek.wallet.velocity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-wallet ring of time buckets. Slot {@code epoch % buckets} holds the transfer count and amount (minor
+ * units) for one bucket-sized slice of time. Writers serialize on the counter's monitor; {@link #usage}
+ * reads without locking and simply skips slots whose epoch has left the window.
+ */
+final class WindowCounter {
+
+    private final int buckets;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray amounts;
+    private volatile long lastEpoch = Long.MIN_VALUE;
+    private boolean retired;
+
+    WindowCounter(int buckets) {
+        this.buckets = buckets;
+        this.epochs = new AtomicLongArray(buckets);
+        this.counts = new AtomicLongArray(buckets);
+        this.amounts = new AtomicLongArray(buckets);
+        for (int i = 0; i < buckets; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    VelocityUsage usage(long currentEpoch) {
+        long transfers = 0;
+        long amount = 0;
+        for (int i = 0; i < buckets; i++) {
+            long epoch = epochs.get(i);
+            if (epoch > currentEpoch - buckets && epoch <= currentEpoch) {
+                transfers += counts.get(i);
+                amount += amounts.get(i);
+            }
+        }
+        return new VelocityUsage(transfers, amount);
+    }
+
+    /**
+     * Must be called while holding this counter's monitor.
+     */
+    void add(long epoch, long transfers, long amount) {
+        int slot = slot(epoch);
+        long slotEpoch = epochs.get(slot);
+        if (slotEpoch > epoch) {
+            return;
+        }
+        if (slotEpoch != epoch) {
+            counts.set(slot, 0L);
+            amounts.set(slot, 0L);
+            epochs.set(slot, epoch);
+        }
+        counts.addAndGet(slot, transfers);
+        amounts.addAndGet(slot, amount);
+        if (epoch > lastEpoch) {
+            lastEpoch = epoch;
+        }
+    }
+
+    synchronized void release(long epoch, long amount) {
+        int slot = slot(epoch);
+        if (epochs.get(slot) == epoch) {
+            counts.decrementAndGet(slot);
+            amounts.addAndGet(slot, -amount);
+        }
+    }
+
+    /**
+     * Must be called while holding this counter's monitor.
+     */
+    boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * Marks the counter retired if it has seen no activity within the window ending at {@code currentEpoch}.
+     */
+    synchronized boolean retireIfIdle(long currentEpoch) {
+        if (lastEpoch > currentEpoch - buckets) {
+            return false;
+        }
+        retired = true;
+        return true;
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets);
+    }
+}
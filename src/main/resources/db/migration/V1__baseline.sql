@@ -0,0 +1,24 @@
+CREATE TABLE user_account (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    full_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE wallet (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL UNIQUE,
+    balance NUMERIC(19, 2) NOT NULL,
+    version BIGINT,
+    CONSTRAINT fk_wallet_user FOREIGN KEY (user_id) REFERENCES user_account (id)
+);
+
+CREATE TABLE transfer_transaction (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_wallet_id BIGINT NOT NULL,
+    to_wallet_id BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,22 @@
+CREATE TABLE deposit_transaction (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    wallet_id BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_deposit_wallet ON deposit_transaction (wallet_id);
+CREATE INDEX idx_transfer_from_wallet ON transfer_transaction (from_wallet_id);
+CREATE INDEX idx_transfer_to_wallet ON transfer_transaction (to_wallet_id);
+
+-- Balances funded before deposits were recorded become one opening deposit per wallet.
+INSERT INTO deposit_transaction (wallet_id, amount, created_at)
+SELECT w.id,
+       w.balance
+           - COALESCE((SELECT SUM(t.amount) FROM transfer_transaction t WHERE t.to_wallet_id = w.id), 0)
+           + COALESCE((SELECT SUM(t.amount) FROM transfer_transaction t WHERE t.from_wallet_id = w.id), 0),
+       CURRENT_TIMESTAMP
+FROM wallet w
+WHERE w.balance
+          - COALESCE((SELECT SUM(t.amount) FROM transfer_transaction t WHERE t.to_wallet_id = w.id), 0)
+          + COALESCE((SELECT SUM(t.amount) FROM transfer_transaction t WHERE t.from_wallet_id = w.id), 0) <> 0;
@@ -0,0 +1,3 @@
+ALTER TABLE wallet ADD COLUMN tier VARCHAR(32) DEFAULT 'STANDARD' NOT NULL;
+
+CREATE INDEX idx_transfer_created_at ON transfer_transaction (created_at);
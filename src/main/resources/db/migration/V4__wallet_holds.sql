@@ -0,0 +1,17 @@
+ALTER TABLE wallet ADD COLUMN held_balance NUMERIC(19, 2) DEFAULT 0 NOT NULL;
+
+CREATE TABLE wallet_hold (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    wallet_id BIGINT NOT NULL,
+    to_wallet_id BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    captured_amount NUMERIC(19, 2),
+    capture_transfer_id BIGINT,
+    status VARCHAR(32) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_hold_wallet ON wallet_hold (wallet_id);
+CREATE INDEX idx_hold_status_expires ON wallet_hold (status, expires_at);
@@ -0,0 +1,5 @@
+ALTER TABLE wallet ADD COLUMN currency VARCHAR(3) DEFAULT 'USD' NOT NULL;
+
+ALTER TABLE transfer_transaction ADD COLUMN credited_amount NUMERIC(19, 2);
+ALTER TABLE transfer_transaction ADD COLUMN fx_rate NUMERIC(19, 8);
+ALTER TABLE transfer_transaction ADD COLUMN fx_rate_version BIGINT;
@@ -0,0 +1,23 @@
+CREATE TABLE scheduled_transfer (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_wallet_id BIGINT NOT NULL,
+    to_wallet_id BIGINT NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    recurrence VARCHAR(32) NOT NULL,
+    start_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    end_at TIMESTAMP(6) WITH TIME ZONE,
+    max_occurrences INTEGER,
+    occurrence BIGINT NOT NULL,
+    next_run_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    lease_token VARCHAR(36),
+    lease_until TIMESTAMP(6) WITH TIME ZONE,
+    last_transfer_id BIGINT,
+    last_error VARCHAR(255),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_schedule_due ON scheduled_transfer (status, next_run_at);
+CREATE INDEX idx_schedule_from_wallet ON scheduled_transfer (from_wallet_id);
+CREATE INDEX idx_schedule_lease_token ON scheduled_transfer (lease_token);
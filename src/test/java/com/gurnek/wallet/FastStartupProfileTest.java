@@ -0,0 +1,26 @@
+package com.gurnek.wallet;
+
+import org.junit.jupiter.api.Test;
+import org.springdoc.webmvc.api.OpenApiWebMvcResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fast-startup;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void shouldMatchEntitiesWithFlywayMigrationsAndSkipOpenApi() {
+        assertThat(context.getBeanNamesForType(OpenApiWebMvcResource.class)).isEmpty();
+    }
+}
@@ -0,0 +1,206 @@
+package com.gurnek.wallet.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gurnek.wallet.reconciliation.ReconciliationReport;
+import com.gurnek.wallet.reconciliation.ReconciliationService;
+import com.gurnek.wallet.service.HoldExpirySweeper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HoldIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HoldExpirySweeper holdExpirySweeper;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Test
+    void shouldReserveFundsAndCapturePartially() throws Exception {
+        Long walletA = createFundedWallet("hold-a", "100.00");
+        Long walletB = createFundedWallet("hold-b", null);
+        String key = "hold-" + UUID.randomUUID();
+
+        JsonNode hold = read(authorize(walletA, walletB, "80.00", null, key).andExpect(status().isCreated()));
+        JsonNode replay = read(authorize(walletA, walletB, "80.00", null, key).andExpect(status().isCreated()));
+        assertThat(replay.get("holdId").asLong()).isEqualTo(hold.get("holdId").asLong());
+        assertThat(hold.get("status").asText()).isEqualTo("AUTHORIZED");
+
+        transfer(walletA, walletB, "30.00").andExpect(status().isBadRequest());
+        authorize(walletA, walletB, "30.00", null, "hold-" + UUID.randomUUID()).andExpect(status().isBadRequest());
+
+        long holdId = hold.get("holdId").asLong();
+        JsonNode captured = read(mockMvc.perform(post("/api/v1/wallets/{walletId}/holds/{holdId}/capture", walletA, holdId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 50.00}
+                                """))
+                .andExpect(status().isOk()));
+        assertThat(captured.get("status").asText()).isEqualTo("CAPTURED");
+        assertThat(captured.get("capturedAmount").decimalValue()).isEqualByComparingTo("50.00");
+        assertThat(captured.get("captureTransferId").isNull()).isFalse();
+
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/holds/{holdId}/capture", walletA, holdId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 50.00}
+                                """))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/holds/{holdId}/release", walletA, holdId))
+                .andExpect(status().isBadRequest());
+
+        assertThat(balance(walletA)).isEqualByComparingTo("50.00");
+        assertThat(balance(walletB)).isEqualByComparingTo("50.00");
+        transfer(walletA, walletB, "50.00").andExpect(status().isCreated());
+        assertThat(reconciliationService.reconcile().discrepancies())
+                .extracting(ReconciliationReport.Discrepancy::walletId)
+                .doesNotContain(walletA, walletB);
+    }
+
+    @Test
+    void shouldReturnFundsOnReleaseAndExpiry() throws Exception {
+        Long walletA = createFundedWallet("release-a", "100.00");
+        Long walletB = createFundedWallet("release-b", null);
+
+        long released = read(authorize(walletA, walletB, "60.00", null, "hold-" + UUID.randomUUID())
+                .andExpect(status().isCreated())).get("holdId").asLong();
+        JsonNode releasedHold = read(mockMvc.perform(post("/api/v1/wallets/{walletId}/holds/{holdId}/release", walletA, released))
+                .andExpect(status().isOk()));
+        assertThat(releasedHold.get("status").asText()).isEqualTo("RELEASED");
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/holds/{holdId}/release", walletA, released))
+                .andExpect(status().isOk());
+
+        long expiring = read(authorize(walletA, walletB, "100.00", 1L, "hold-" + UUID.randomUUID())
+                .andExpect(status().isCreated())).get("holdId").asLong();
+        transfer(walletA, walletB, "10.00").andExpect(status().isBadRequest());
+        Thread.sleep(1100);
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/holds/{holdId}/capture", walletA, expiring))
+                .andExpect(status().isBadRequest());
+
+        holdExpirySweeper.sweep();
+        JsonNode expired = read(mockMvc.perform(get("/api/v1/wallets/{walletId}/holds/{holdId}", walletA, expiring))
+                .andExpect(status().isOk()));
+        assertThat(expired.get("status").asText()).isEqualTo("EXPIRED");
+        transfer(walletA, walletB, "100.00").andExpect(status().isCreated());
+        assertThat(balance(walletA)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void shouldNeverHoldMoreThanTheBalanceUnderConcurrency() throws Exception {
+        Long walletA = createFundedWallet("race-hold-a", "100.00");
+        Long walletB = createFundedWallet("race-hold-b", null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            results.add(executor.submit(() -> authorize(walletA, walletB, "10.00", null, "race-" + UUID.randomUUID())
+                    .andReturn().getResponse().getStatus()));
+        }
+        executor.shutdown();
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<Integer> result : results) {
+            statuses.add(result.get());
+        }
+
+        assertThat(statuses).filteredOn(status -> status == 201).hasSize(10);
+        assertThat(statuses).filteredOn(status -> status == 400).hasSize(15);
+        transfer(walletA, walletB, "0.01").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectHoldKeyReusedForDifferentHold() throws Exception {
+        Long walletA = createFundedWallet("reuse-hold-a", "100.00");
+        Long walletB = createFundedWallet("reuse-hold-b", "100.00");
+        Long walletC = createFundedWallet("reuse-hold-c", null);
+        String key = "hold-" + UUID.randomUUID();
+        authorize(walletA, walletC, "20.00", null, key).andExpect(status().isCreated());
+
+        authorize(walletB, walletC, "20.00", null, key).andExpect(status().isBadRequest());
+        authorize(walletA, walletB, "20.00", null, key).andExpect(status().isBadRequest());
+        authorize(walletA, walletC, "25.00", null, key).andExpect(status().isBadRequest());
+        authorize(walletA, walletC, "80.01", null, "hold-" + UUID.randomUUID()).andExpect(status().isBadRequest());
+        authorize(walletA, walletC, "80.00", null, "hold-" + UUID.randomUUID()).andExpect(status().isCreated());
+    }
+
+    @Test
+    void shouldRejectInvalidHolds() throws Exception {
+        Long walletA = createFundedWallet("invalid-hold-a", "100.00");
+
+        authorize(walletA, walletA, "10.00", null, "hold-" + UUID.randomUUID()).andExpect(status().isBadRequest());
+        authorize(walletA, 999999L, "10.00", null, "hold-" + UUID.randomUUID()).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/holds/{holdId}", walletA, 999999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private ResultActions authorize(Long from, Long to, String amount, Long ttlSeconds, String key) throws Exception {
+        return mockMvc.perform(post("/api/v1/wallets/{walletId}/holds", from)
+                .header("X-Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"toWalletId": %d, "amount": %s, "ttlSeconds": %s}
+                        """.formatted(to, amount, ttlSeconds)));
+    }
+
+    private ResultActions transfer(Long from, Long to, String amount) throws Exception {
+        return mockMvc.perform(post("/api/v1/transfers")
+                .header("X-Idempotency-Key", "tx-" + UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"fromWalletId": %d, "toWalletId": %d, "amount": %s}
+                        """.formatted(from, to, amount)));
+    }
+
+    private BigDecimal balance(Long walletId) throws Exception {
+        return read(mockMvc.perform(get("/api/v1/wallets/{walletId}", walletId)).andExpect(status().isOk()))
+                .get("balance").decimalValue();
+    }
+
+    private Long createFundedWallet(String prefix, String deposit) throws Exception {
+        Long walletId = read(mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fullName":"%s", "email":"%s-%s@example.com"}
+                                """.formatted(prefix, prefix, UUID.randomUUID())))
+                .andExpect(status().isCreated())).get("walletId").asLong();
+        if (deposit != null) {
+            mockMvc.perform(post("/api/v1/wallets/{walletId}/deposit", walletId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"amount": %s}
+                                    """.formatted(deposit)))
+                    .andExpect(status().isOk());
+        }
+        return walletId;
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,145 @@
+package com.gurnek.wallet.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gurnek.wallet.reconciliation.ReconciliationReport;
+import com.gurnek.wallet.reconciliation.ReconciliationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "wallet.fx.enabled=true",
+        "wallet.fx.rates.EUR=1.10"
+})
+@AutoConfigureMockMvc
+class MultiCurrencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Test
+    void shouldConvertTransfersAndRecordRateVersion() throws Exception {
+        Long usdWallet = createWallet("usd", "USD");
+        Long eurWallet = createWallet("eur", "EUR");
+        deposit(usdWallet, "100.00");
+
+        JsonNode transfer = read(transfer(usdWallet, eurWallet, "50.00").andExpect(status().isCreated()));
+        assertThat(transfer.get("amount").decimalValue()).isEqualByComparingTo("50.00");
+        assertThat(transfer.get("creditedAmount").decimalValue()).isEqualByComparingTo("45.45");
+        assertThat(transfer.get("fxRateVersion").asLong()).isEqualTo(1L);
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT credited_amount, fx_rate, fx_rate_version FROM transfer_transaction WHERE id = ?",
+                transfer.get("transferId").asLong());
+        assertThat((BigDecimal) row.get("FX_RATE")).isEqualByComparingTo("0.90909091");
+
+        read(transfer(eurWallet, usdWallet, "10.00").andExpect(status().isCreated()));
+
+        JsonNode usd = wallet(usdWallet);
+        JsonNode eur = wallet(eurWallet);
+        assertThat(usd.get("currency").asText()).isEqualTo("USD");
+        assertThat(usd.get("balance").decimalValue()).isEqualByComparingTo("61.00");
+        assertThat(eur.get("currency").asText()).isEqualTo("EUR");
+        assertThat(eur.get("balance").decimalValue()).isEqualByComparingTo("35.45");
+        assertThat(reconciliationService.reconcile().discrepancies())
+                .extracting(ReconciliationReport.Discrepancy::walletId)
+                .doesNotContain(usdWallet, eurWallet);
+    }
+
+    @Test
+    void shouldConvertHoldAtCapture() throws Exception {
+        Long usdWallet = createWallet("hold-usd", "USD");
+        Long eurWallet = createWallet("hold-eur", "EUR");
+        deposit(usdWallet, "100.00");
+
+        long holdId = read(mockMvc.perform(post("/api/v1/wallets/{walletId}/holds", usdWallet)
+                        .header("X-Idempotency-Key", "hold-" + UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"toWalletId": %d, "amount": 22.00}
+                                """.formatted(eurWallet)))
+                .andExpect(status().isCreated())).get("holdId").asLong();
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/holds/{holdId}/capture", usdWallet, holdId))
+                .andExpect(status().isOk());
+
+        assertThat(wallet(usdWallet).get("balance").decimalValue()).isEqualByComparingTo("78.00");
+        assertThat(wallet(eurWallet).get("balance").decimalValue()).isEqualByComparingTo("20.00");
+        assertThat(reconciliationService.reconcile().discrepancies())
+                .extracting(ReconciliationReport.Discrepancy::walletId)
+                .doesNotContain(usdWallet, eurWallet);
+    }
+
+    @Test
+    void shouldRejectUnsupportedCurrencies() throws Exception {
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fullName":"gbp", "email":"gbp-%s@example.com", "currency":"GBP"}
+                                """.formatted(UUID.randomUUID())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fullName":"bad", "email":"bad-%s@example.com", "currency":"euro"}
+                                """.formatted(UUID.randomUUID())))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions transfer(Long from, Long to, String amount) throws Exception {
+        return mockMvc.perform(post("/api/v1/transfers")
+                .header("X-Idempotency-Key", "fx-" + UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"fromWalletId": %d, "toWalletId": %d, "amount": %s}
+                        """.formatted(from, to, amount)));
+    }
+
+    private void deposit(Long walletId, String amount) throws Exception {
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/deposit", walletId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": %s}
+                                """.formatted(amount)))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode wallet(Long walletId) throws Exception {
+        return read(mockMvc.perform(get("/api/v1/wallets/{walletId}", walletId)).andExpect(status().isOk()));
+    }
+
+    private Long createWallet(String prefix, String currency) throws Exception {
+        return read(mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fullName":"%s", "email":"%s-%s@example.com", "currency":"%s"}
+                                """.formatted(prefix, prefix, UUID.randomUUID(), currency)))
+                .andExpect(status().isCreated())).get("walletId").asLong();
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
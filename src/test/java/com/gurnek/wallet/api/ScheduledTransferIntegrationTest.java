@@ -0,0 +1,254 @@
+package com.gurnek.wallet.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gurnek.wallet.service.ScheduledTransferExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "wallet.schedules.poll-interval=PT1H",
+        "wallet.schedules.batch-size=7"
+})
+@AutoConfigureMockMvc
+class ScheduledTransferIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ScheduledTransferExecutor scheduledTransferExecutor;
+
+    @Test
+    void shouldRunEachDueOccurrenceOnceWithDeterministicKeys() throws Exception {
+        Long walletA = createFundedWallet("sched-a", "100.00");
+        Long walletB = createFundedWallet("sched-b", null);
+        String key = "schedule-" + UUID.randomUUID();
+        String body = """
+                {"toWalletId": %d, "amount": 10.00, "recurrence": "DAILY", "maxOccurrences": 3}
+                """.formatted(walletB);
+
+        JsonNode schedule = read(schedule(walletA, body, key).andExpect(status().isCreated()));
+        JsonNode replay = read(schedule(walletA, body, key).andExpect(status().isCreated()));
+        long scheduleId = schedule.get("scheduleId").asLong();
+        assertThat(replay.get("scheduleId").asLong()).isEqualTo(scheduleId);
+        Instant beforeDowntime = Instant.now().minus(Duration.ofDays(2)).minusSeconds(5);
+        jdbcTemplate.update("UPDATE scheduled_transfer SET start_at = ?, next_run_at = ? WHERE id = ?",
+                Timestamp.from(beforeDowntime), Timestamp.from(beforeDowntime), scheduleId);
+
+        JsonNode completed = awaitStatus(walletA, scheduleId, "COMPLETED");
+        assertThat(completed.get("occurrencesRun").asLong()).isEqualTo(3);
+        assertThat(completed.get("nextRunAt").isNull()).isTrue();
+        assertThat(balance(walletA)).isEqualByComparingTo("70.00");
+        assertThat(balance(walletB)).isEqualByComparingTo("30.00");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT idempotency_key FROM transfer_transaction WHERE from_wallet_id = ? ORDER BY idempotency_key",
+                String.class, walletA))
+                .containsExactly("sched-" + scheduleId + "-0", "sched-" + scheduleId + "-1", "sched-" + scheduleId + "-2");
+        assertThat(completed.get("lastTransferId").asLong()).isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT id FROM transfer_transaction WHERE idempotency_key = ?", Long.class, "sched-" + scheduleId + "-2"));
+    }
+
+    @Test
+    void shouldNotLetClientTransfersClaimOccurrenceKeys() throws Exception {
+        Long walletA = createFundedWallet("reserved-sched-a", "100.00");
+        Long walletB = createFundedWallet("reserved-sched-b", null);
+        long scheduleId = read(schedule(walletA, """
+                {"toWalletId": %d, "amount": 10.00}
+                """.formatted(walletB), "reserved-" + UUID.randomUUID())
+                .andExpect(status().isCreated())).get("scheduleId").asLong();
+
+        mockMvc.perform(post("/api/v1/transfers")
+                        .header("X-Idempotency-Key", "sched-" + scheduleId + "-0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fromWalletId": %d, "toWalletId": %d, "amount": 1.00}
+                                """.formatted(walletA, walletB)))
+                .andExpect(status().isBadRequest());
+
+        JsonNode completed = awaitStatus(walletA, scheduleId, "COMPLETED");
+        assertThat(completed.get("lastError").isNull()).isTrue();
+        assertThat(balance(walletA)).isEqualByComparingTo("90.00");
+        assertThat(balance(walletB)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void shouldRejectScheduleKeyReusedForDifferentSchedule() throws Exception {
+        Long walletA = createFundedWallet("reuse-sched-a", null);
+        Long walletB = createFundedWallet("reuse-sched-b", null);
+        Long walletC = createFundedWallet("reuse-sched-c", null);
+        String key = "reuse-" + UUID.randomUUID();
+        String body = """
+                {"toWalletId": %d, "amount": 5.00, "recurrence": "WEEKLY", "startAt": "%s"}
+                """.formatted(walletB, Instant.now().plus(Duration.ofDays(1)));
+        schedule(walletA, body, key).andExpect(status().isCreated());
+
+        schedule(walletC, body, key).andExpect(status().isBadRequest());
+        schedule(walletA, body.replace("5.00", "6.00"), key).andExpect(status().isBadRequest());
+        schedule(walletA, body.replace("WEEKLY", "DAILY"), key).andExpect(status().isBadRequest());
+        schedule(walletA, """
+                {"toWalletId": %d, "amount": 5.00, "recurrence": "WEEKLY"}
+                """.formatted(walletC), key).andExpect(status().isBadRequest());
+        assertThat(read(mockMvc.perform(get("/api/v1/wallets/{walletId}/scheduled-transfers", walletC))
+                .andExpect(status().isOk()))).isEmpty();
+    }
+
+    @Test
+    void shouldNotDoublePayWhenPollersRace() throws Exception {
+        Long walletA = createFundedWallet("race-sched-a", "100.00");
+        Long walletB = createFundedWallet("race-sched-b", null);
+        List<Long> scheduleIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            scheduleIds.add(read(schedule(walletA, """
+                    {"toWalletId": %d, "amount": 1.00}
+                    """.formatted(walletB), "race-" + UUID.randomUUID())
+                    .andExpect(status().isCreated())).get("scheduleId").asLong());
+        }
+
+        ExecutorService pollers = Executors.newFixedThreadPool(3);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(pollers.submit(scheduledTransferExecutor::runDue));
+        }
+        pollers.shutdown();
+        for (Future<Integer> result : results) {
+            result.get();
+        }
+
+        for (Long scheduleId : scheduleIds) {
+            awaitStatus(walletA, scheduleId, "COMPLETED");
+        }
+        assertThat(balance(walletA)).isEqualByComparingTo("80.00");
+        assertThat(balance(walletB)).isEqualByComparingTo("20.00");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transfer_transaction WHERE from_wallet_id = ?", Integer.class, walletA)).isEqualTo(20);
+    }
+
+    @Test
+    void shouldSkipFailedOccurrenceAndHonourCancellation() throws Exception {
+        Long walletA = createFundedWallet("skip-sched-a", "5.00");
+        Long walletB = createFundedWallet("skip-sched-b", null);
+
+        long failing = read(schedule(walletA, """
+                {"toWalletId": %d, "amount": 10.00}
+                """.formatted(walletB), "skip-" + UUID.randomUUID())
+                .andExpect(status().isCreated())).get("scheduleId").asLong();
+        long future = read(schedule(walletA, """
+                {"toWalletId": %d, "amount": 1.00, "recurrence": "WEEKLY", "startAt": "%s"}
+                """.formatted(walletB, Instant.now().plus(Duration.ofDays(1))), "future-" + UUID.randomUUID())
+                .andExpect(status().isCreated())).get("scheduleId").asLong();
+
+        JsonNode skipped = awaitStatus(walletA, failing, "COMPLETED");
+        assertThat(skipped.get("lastError").asText()).isEqualTo("insufficient balance");
+        assertThat(skipped.get("lastTransferId").isNull()).isTrue();
+
+        scheduledTransferExecutor.runDue();
+        assertThat(read(mockMvc.perform(get("/api/v1/wallets/{walletId}/scheduled-transfers/{scheduleId}", walletA, future))
+                .andExpect(status().isOk())).get("occurrencesRun").asLong()).isZero();
+        JsonNode cancelled = read(mockMvc.perform(post("/api/v1/wallets/{walletId}/scheduled-transfers/{scheduleId}/cancel",
+                        walletA, future))
+                .andExpect(status().isOk()));
+        assertThat(cancelled.get("status").asText()).isEqualTo("CANCELLED");
+        assertThat(read(mockMvc.perform(get("/api/v1/wallets/{walletId}/scheduled-transfers", walletA))
+                .andExpect(status().isOk()))).hasSize(2);
+        assertThat(balance(walletA)).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void shouldRejectInvalidSchedules() throws Exception {
+        Long walletA = createFundedWallet("invalid-sched-a", null);
+
+        schedule(walletA, """
+                {"toWalletId": %d, "amount": 1.00}
+                """.formatted(walletA), "invalid-" + UUID.randomUUID()).andExpect(status().isBadRequest());
+        schedule(walletA, """
+                {"toWalletId": 999999, "amount": 1.00}
+                """, "invalid-" + UUID.randomUUID()).andExpect(status().isNotFound());
+        schedule(walletA, """
+                {"toWalletId": 999999, "amount": 1.00, "maxOccurrences": 0}
+                """, "invalid-" + UUID.randomUUID()).andExpect(status().isBadRequest());
+        schedule(walletA, """
+                {"toWalletId": 999999, "amount": 1.00, "recurrence": "DAILY", "startAt": "%s"}
+                """.formatted(Instant.now().minus(Duration.ofDays(365))), "invalid-" + UUID.randomUUID())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/scheduled-transfers/{scheduleId}", walletA, 999999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitStatus(Long walletId, long scheduleId, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        JsonNode schedule;
+        do {
+            scheduledTransferExecutor.runDue();
+            schedule = read(mockMvc.perform(get("/api/v1/wallets/{walletId}/scheduled-transfers/{scheduleId}",
+                    walletId, scheduleId)).andExpect(status().isOk()));
+            if (schedule.get("status").asText().equals(expected)) {
+                return schedule;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+        throw new AssertionError("schedule " + scheduleId + " did not reach " + expected + ": " + schedule);
+    }
+
+    private ResultActions schedule(Long walletId, String body, String key) throws Exception {
+        return mockMvc.perform(post("/api/v1/wallets/{walletId}/scheduled-transfers", walletId)
+                .header("X-Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private BigDecimal balance(Long walletId) throws Exception {
+        return read(mockMvc.perform(get("/api/v1/wallets/{walletId}", walletId)).andExpect(status().isOk()))
+                .get("balance").decimalValue();
+    }
+
+    private Long createFundedWallet(String prefix, String deposit) throws Exception {
+        Long walletId = read(mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fullName":"%s", "email":"%s-%s@example.com"}
+                                """.formatted(prefix, prefix, UUID.randomUUID())))
+                .andExpect(status().isCreated())).get("walletId").asLong();
+        if (deposit != null) {
+            mockMvc.perform(post("/api/v1/wallets/{walletId}/deposit", walletId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"amount": %s}
+                                    """.formatted(deposit)))
+                    .andExpect(status().isOk());
+        }
+        return walletId;
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
@@ -93,6 +93,49 @@ class WalletTransferIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void shouldRejectReservedAndReusedIdempotencyKeys() throws Exception {
+        Long walletA = createUser("Reserved Key A", uniqueEmail("reserved-a"));
+        Long walletB = createUser("Reserved Key B", uniqueEmail("reserved-b"));
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/deposit", walletA)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 100.00}
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/transfers")
+                        .header("X-Idempotency-Key", "saga-node-a-" + UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fromWalletId": %d, "toWalletId": %d, "amount": 10.00}
+                                """.formatted(walletA, walletB)))
+                .andExpect(status().isBadRequest());
+
+        String key = "reused-" + UUID.randomUUID();
+        mockMvc.perform(post("/api/v1/transfers")
+                        .header("X-Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fromWalletId": %d, "toWalletId": %d, "amount": 10.00}
+                                """.formatted(walletA, walletB)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/transfers")
+                        .header("X-Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fromWalletId": %d, "toWalletId": %d, "amount": 25.00}
+                                """.formatted(walletA, walletB)))
+                .andExpect(status().isBadRequest());
+
+        String walletAResponse = mockMvc.perform(get("/api/v1/wallets/{walletId}", walletA))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(objectMapper.readTree(walletAResponse).get("balance").decimalValue()).isEqualByComparingTo("90.00");
+    }
+
     @Test
     void shouldRejectTransferWhenInsufficientBalance() throws Exception {
         Long walletA = createUser("Low Balance A", uniqueEmail("low-balance-a"));
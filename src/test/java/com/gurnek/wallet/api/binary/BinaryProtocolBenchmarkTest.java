@@ -0,0 +1,108 @@
+package com.gurnek.wallet.api.binary;
+
+import com.gurnek.wallet.api.dto.CreateUserRequest;
+import com.gurnek.wallet.api.dto.TransferRequest;
+import com.gurnek.wallet.api.dto.TransferResponse;
+import com.gurnek.wallet.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loopback comparison of the REST and binary transports. Disabled by default; run with
+ * {@code mvn test -Dtest=BinaryProtocolBenchmarkTest -Dwallet.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "wallet.benchmark", matches = "true")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"wallet.binary.enabled=true", "wallet.binary.port=0", "logging.level.com.gurnek.wallet=WARN"}
+)
+class BinaryProtocolBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryProtocolBenchmarkTest.class);
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+    private static final int PIPELINE_DEPTH = 32;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private BinaryProtocolServer server;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void compareRestAndBinaryTransferLatency() throws Exception {
+        Long from = walletService.createUserWithWallet(
+                new CreateUserRequest("Bench From", "bench-" + UUID.randomUUID() + "@example.com", null)).walletId();
+        Long to = walletService.createUserWithWallet(
+                new CreateUserRequest("Bench To", "bench-" + UUID.randomUUID() + "@example.com", null)).walletId();
+        walletService.deposit(from, new BigDecimal("1000000.00"));
+        BigDecimal amount = new BigDecimal("0.01");
+
+        runRest(from, to, amount, WARMUP);
+        long restNanos = runRest(from, to, amount, ITERATIONS);
+
+        try (BinaryProtocolClient client = new BinaryProtocolClient("localhost", server.getPort())) {
+            runBinary(client, from, to, amount, WARMUP, 1);
+            long binaryNanos = runBinary(client, from, to, amount, ITERATIONS, 1);
+            long pipelinedNanos = runBinary(client, from, to, amount, ITERATIONS, PIPELINE_DEPTH);
+
+            log.warn("REST      : {} transfers/s, {} us/transfer", perSecond(restNanos), perTransfer(restNanos));
+            log.warn("Binary    : {} transfers/s, {} us/transfer", perSecond(binaryNanos), perTransfer(binaryNanos));
+            log.warn("Binary x{}: {} transfers/s, {} us/transfer", PIPELINE_DEPTH,
+                    perSecond(pipelinedNanos), perTransfer(pipelinedNanos));
+        }
+    }
+
+    private long runRest(Long from, Long to, BigDecimal amount, int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("X-Idempotency-Key", "rest-bench-" + UUID.randomUUID());
+            ResponseEntity<TransferResponse> response = restTemplate.postForEntity(
+                    "/api/v1/transfers", new HttpEntity<>(new TransferRequest(from, to, amount), headers),
+                    TransferResponse.class);
+            assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runBinary(BinaryProtocolClient client, Long from, Long to, BigDecimal amount, int count, int depth)
+            throws Exception {
+        long start = System.nanoTime();
+        for (int sent = 0; sent < count; sent += depth) {
+            int batch = Math.min(depth, count - sent);
+            for (int i = 0; i < batch; i++) {
+                client.sendTransfer(sent + i, from, to, amount, "binary-bench-" + UUID.randomUUID());
+            }
+            client.flush();
+            for (int i = 0; i < batch; i++) {
+                assertThat(client.read().isOk()).isTrue();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long perSecond(long nanos) {
+        return ITERATIONS * 1_000_000_000L / nanos;
+    }
+
+    private long perTransfer(long nanos) {
+        return nanos / ITERATIONS / 1_000;
+    }
+}
@@ -0,0 +1,104 @@
+package com.gurnek.wallet.api.binary;
+
+import com.gurnek.wallet.api.binary.BinaryProtocolClient.BinaryResponse;
+import com.gurnek.wallet.api.dto.CreateUserRequest;
+import com.gurnek.wallet.domain.TransferStatus;
+import com.gurnek.wallet.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "wallet.binary.enabled=true",
+        "wallet.binary.port=0",
+        "wallet.fx.enabled=true",
+        "wallet.fx.rates.EUR=1.10"
+})
+class BinaryProtocolIntegrationTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private BinaryProtocolServer server;
+
+    @Test
+    void shouldServePipelinedTransfersWithIdempotency() throws Exception {
+        Long walletA = createFundedWallet("Binary A", new BigDecimal("100.00"));
+        Long walletB = createFundedWallet("Binary B", BigDecimal.ZERO);
+        String key = "binary-" + UUID.randomUUID();
+
+        try (BinaryProtocolClient client = new BinaryProtocolClient("localhost", server.getPort())) {
+            client.sendTransfer(1L, walletA, walletB, new BigDecimal("30.00"), key);
+            client.sendTransfer(2L, walletA, walletB, new BigDecimal("30.00"), key);
+            client.sendTransfer(3L, walletA, walletB, new BigDecimal("500.00"), "binary-" + UUID.randomUUID());
+            client.sendGetWallet(4L, walletA);
+            client.flush();
+
+            BinaryResponse first = client.read();
+            BinaryResponse replay = client.read();
+            BinaryResponse insufficient = client.read();
+            BinaryResponse wallet = client.read();
+
+            assertThat(first.isOk()).isTrue();
+            assertThat(first.requestId()).isEqualTo(1L);
+            assertThat(first.transfer().status()).isEqualTo(TransferStatus.SUCCESS);
+            assertThat(replay.transfer().transferId()).isEqualTo(first.transfer().transferId());
+            assertThat(insufficient.status()).isEqualTo(BinaryProtocol.STATUS_BUSINESS_ERROR);
+            assertThat(insufficient.error()).isEqualTo("insufficient balance");
+            assertThat(wallet.wallet().balance()).isEqualByComparingTo("70.00");
+        }
+    }
+
+    @Test
+    void shouldReportNotFoundAndInvalidAmount() throws Exception {
+        Long walletA = createFundedWallet("Binary C", BigDecimal.ZERO);
+
+        try (BinaryProtocolClient client = new BinaryProtocolClient("localhost", server.getPort())) {
+            assertThat(client.getWallet(1L, 999999L).status()).isEqualTo(BinaryProtocol.STATUS_NOT_FOUND);
+            assertThat(client.transfer(2L, walletA, 999999L, BigDecimal.ZERO, "zero-" + UUID.randomUUID()).status())
+                    .isEqualTo(BinaryProtocol.STATUS_BAD_REQUEST);
+        }
+    }
+
+    @Test
+    void shouldCarryCurrencyAndConversionDetails() throws Exception {
+        Long usdWallet = createFundedWallet("Binary USD", new BigDecimal("100.00"));
+        Long eurWallet = createFundedWallet("Binary EUR", BigDecimal.ZERO, "EUR");
+
+        try (BinaryProtocolClient client = new BinaryProtocolClient("localhost", server.getPort())) {
+            BinaryResponse converted = client.transfer(1L, usdWallet, eurWallet, new BigDecimal("50.00"),
+                    "binary-fx-" + UUID.randomUUID());
+            BinaryResponse sameCurrency = client.transfer(2L, usdWallet, createFundedWallet("Binary USD 2", BigDecimal.ZERO),
+                    new BigDecimal("10.00"), "binary-fx-" + UUID.randomUUID());
+            BinaryResponse wallet = client.getWallet(3L, eurWallet);
+
+            assertThat(converted.transfer()).usingRecursiveComparison().ignoringFields("createdAt")
+                    .isEqualTo(walletService.getTransfer(converted.transfer().transferId()));
+            assertThat(converted.transfer().creditedAmount()).isEqualByComparingTo("45.45");
+            assertThat(converted.transfer().fxRateVersion()).isEqualTo(1L);
+            assertThat(sameCurrency.transfer().creditedAmount()).isEqualByComparingTo("10.00");
+            assertThat(sameCurrency.transfer().fxRateVersion()).isNull();
+            assertThat(wallet.wallet().currency()).isEqualTo("EUR");
+            assertThat(wallet.wallet().balance()).isEqualByComparingTo("45.45");
+        }
+    }
+
+    private Long createFundedWallet(String name, BigDecimal amount) {
+        return createFundedWallet(name, amount, null);
+    }
+
+    private Long createFundedWallet(String name, BigDecimal amount, String currency) {
+        Long walletId = walletService.createUserWithWallet(
+                new CreateUserRequest(name, "binary-" + UUID.randomUUID() + "@example.com", currency)).walletId();
+        if (amount.signum() > 0) {
+            walletService.deposit(walletId, amount);
+        }
+        return walletId;
+    }
+}
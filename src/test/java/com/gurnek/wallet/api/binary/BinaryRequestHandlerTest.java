@@ -0,0 +1,88 @@
+package com.gurnek.wallet.api.binary;
+
+import com.gurnek.wallet.api.dto.TransferRequest;
+import com.gurnek.wallet.api.dto.TransferResponse;
+import com.gurnek.wallet.domain.TransferStatus;
+import com.gurnek.wallet.service.WalletPartitioning;
+import com.gurnek.wallet.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryRequestHandlerTest {
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private WalletPartitioning walletPartitioning;
+
+    @Test
+    void shouldEncodeTransferStatusAsWireCode() {
+        when(walletService.transfer(any(TransferRequest.class), eq("held")))
+                .thenReturn(new TransferResponse(9L, 1L, 2L, new BigDecimal("5.00"), new BigDecimal("5.00"), null,
+                        TransferStatus.DEBIT_HELD, Instant.EPOCH));
+
+        ByteBuffer response = handle(transfer(1L, 2L, "held"));
+
+        assertThat(response.get()).isEqualTo(BinaryProtocol.STATUS_OK);
+        assertThat(response.getLong()).isEqualTo(7L);
+        response.position(response.position() + 4 * Long.BYTES);
+        assertThat(BinaryProtocol.fromWireCode(response.get())).isEqualTo(TransferStatus.DEBIT_HELD);
+    }
+
+    @Test
+    void shouldReportOptimisticLockFailureAsConflict() {
+        when(walletService.transfer(any(TransferRequest.class), eq("locked")))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Wallet", 1L));
+
+        ByteBuffer response = handle(transfer(1L, 2L, "locked"));
+
+        assertThat(response.get()).isEqualTo(BinaryProtocol.STATUS_CONFLICT);
+        assertThat(response.getLong()).isEqualTo(7L);
+        assertThat(BinaryProtocol.getString(response)).isEqualTo("concurrent update, retry the request");
+    }
+
+    @Test
+    void shouldRejectWalletsOwnedByAnotherNode() {
+        when(walletPartitioning.isRemote(1L)).thenReturn(false);
+        when(walletPartitioning.isRemote(2L)).thenReturn(true);
+
+        ByteBuffer response = handle(transfer(1L, 2L, "remote"));
+
+        assertThat(response.get()).isEqualTo(BinaryProtocol.STATUS_WRONG_NODE);
+        assertThat(response.getLong()).isEqualTo(7L);
+        assertThat(BinaryProtocol.getString(response)).isEqualTo("wallet 2 is owned by another node");
+        verifyNoInteractions(walletService);
+    }
+
+    private ByteBuffer handle(ByteBuffer request) {
+        ByteBuffer response = ByteBuffer.allocate(BinaryProtocol.MAX_FRAME_LENGTH);
+        new BinaryRequestHandler(walletService, walletPartitioning).handle(request, response);
+        return response.flip();
+    }
+
+    private static ByteBuffer transfer(long fromWalletId, long toWalletId, String key) {
+        ByteBuffer request = ByteBuffer.allocate(256);
+        request.put(BinaryProtocol.OP_TRANSFER);
+        request.putLong(7L);
+        request.putLong(fromWalletId);
+        request.putLong(toWalletId);
+        request.putLong(500L);
+        BinaryProtocol.putString(request, key);
+        return request.flip();
+    }
+}
@@ -0,0 +1,193 @@
+package com.gurnek.wallet.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gurnek.wallet.WalletTransferApplication;
+import com.gurnek.wallet.journal.MappedTransferJournal;
+import com.gurnek.wallet.reconciliation.ReconciliationReport;
+import com.gurnek.wallet.reconciliation.ReconciliationService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterRoutingIntegrationTest {
+
+    @TempDir
+    static Path dataDir;
+
+    private static final String CLUSTER_SECRET = "cluster-test-secret";
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static int portA;
+    private static int portB;
+    private static String urlA;
+    private static String urlB;
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        portA = freePort();
+        portB = freePort();
+        urlA = "http://localhost:" + portA;
+        urlB = "http://localhost:" + portB;
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void shouldRouteRequestsAndRunCrossPartitionTransfers() throws Exception {
+        long walletA = createUser(urlA, "cluster-a");
+        long walletB = createUser(urlB, "cluster-b");
+        WalletRouter router = nodeA.getBean(WalletRouter.class);
+        assertThat(router.ownerOf(walletA)).isEqualTo("node-a");
+        assertThat(router.ownerOf(walletB)).isEqualTo("node-b");
+
+        assertThat(send(urlB, "POST", "/api/v1/wallets/" + walletA + "/deposit", "{\"amount\": 100.00}", null)
+                .statusCode()).isEqualTo(200);
+
+        String key = "cluster-" + UUID.randomUUID();
+        String body = "{\"fromWalletId\": %d, \"toWalletId\": %d, \"amount\": 40.00}".formatted(walletA, walletB);
+        HttpResponse<String> first = send(urlB, "POST", "/api/v1/transfers", body, key);
+        HttpResponse<String> replay = send(urlA, "POST", "/api/v1/transfers", body, key);
+        assertThat(first.statusCode()).isEqualTo(201);
+        JsonNode transfer = objectMapper.readTree(first.body());
+        assertThat(transfer.get("status").asText()).isEqualTo("SUCCESS");
+        assertThat(objectMapper.readTree(replay.body()).get("transferId").asLong())
+                .isEqualTo(transfer.get("transferId").asLong());
+
+        assertThat(balance(urlB, walletA)).isEqualTo("60.00");
+        assertThat(balance(urlA, walletB)).isEqualTo("40.00");
+        assertThat(objectMapper.readTree(send(urlB, "GET", "/api/v1/transfers/" + transfer.get("transferId").asLong(),
+                null, null).body()).get("status").asText()).isEqualTo("SUCCESS");
+
+        long missingOnB = walletB + 1;
+        while (!router.ownerOf(missingOnB).equals("node-b")) {
+            missingOnB++;
+        }
+        String compensatedKey = "cluster-missing-" + UUID.randomUUID();
+        String missingBody = "{\"fromWalletId\": %d, \"toWalletId\": %d, \"amount\": 25.00}".formatted(walletA, missingOnB);
+        assertThat(send(urlA, "POST", "/api/v1/transfers", missingBody, compensatedKey).statusCode()).isEqualTo(404);
+        assertThat(objectMapper.readTree(send(urlA, "POST", "/api/v1/transfers", missingBody, compensatedKey).body())
+                .get("status").asText()).isEqualTo("COMPENSATED");
+        assertThat(balance(urlA, walletA)).isEqualTo("60.00");
+
+        for (ConfigurableApplicationContext node : new ConfigurableApplicationContext[]{nodeA, nodeB}) {
+            ReconciliationReport report = node.getBean(ReconciliationService.class).reconcile();
+            assertThat(report.state()).isEqualTo(ReconciliationReport.State.COMPLETED);
+            assertThat(report.discrepancyCount()).isZero();
+        }
+
+        nodeA.close();
+        nodeA = startNode("node-a");
+        nodeB.close();
+        nodeB = startNode("node-b");
+        for (ConfigurableApplicationContext node : new ConfigurableApplicationContext[]{nodeA, nodeB}) {
+            assertThat(node.getBean(MappedTransferJournal.class).checkBalances(node.getBean(JdbcTemplate.class)))
+                    .isZero();
+        }
+    }
+
+    @Test
+    void shouldRejectForwardedRequestForWalletOwnedElsewhere() throws Exception {
+        long walletB = createUser(urlB, "cluster-loop");
+
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(urlA + "/api/v1/wallets/" + walletB))
+                .header(ClusterRoutingFilter.FORWARDED_BY_HEADER, "node-b")
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(421);
+    }
+
+    @Test
+    void shouldRejectRemoteCreditWithoutClusterSecret() throws Exception {
+        long walletB = createUser(urlB, "cluster-internal");
+        String body = "{\"fromWalletId\": 1, \"toWalletId\": %d, \"amount\": 1000.00, \"currency\": \"USD\", "
+                .formatted(walletB) + "\"idempotencyKey\": \"forged-" + UUID.randomUUID() + "\"}";
+
+        for (String secret : new String[]{null, "wrong-secret"}) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(urlB + RemoteCreditController.PATH))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (secret != null) {
+                builder.header(ClusterSecretFilter.SECRET_HEADER, secret);
+            }
+            HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(401);
+        }
+        assertThat(balance(urlB, walletB)).isEqualTo("0.00");
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(WalletTransferApplication.class).run(
+                "--server.port=" + (nodeId.equals("node-a") ? portA : portB),
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve(nodeId) + ";MODE=PostgreSQL",
+                "--wallet.cluster.enabled=true",
+                "--wallet.cluster.node-id=" + nodeId,
+                "--wallet.cluster.secret=" + CLUSTER_SECRET,
+                "--wallet.cluster.nodes.node-a=http://localhost:" + portA,
+                "--wallet.cluster.nodes.node-b=http://localhost:" + portB,
+                "--wallet.cluster.id-block-size=10",
+                "--wallet.journal.enabled=true",
+                "--wallet.journal.directory=" + dataDir.resolve(nodeId + "-journal"),
+                "--wallet.journal.segment-size=1MB");
+    }
+
+    private long createUser(String baseUrl, String prefix) throws Exception {
+        String body = "{\"fullName\": \"Cluster User\", \"email\": \"%s-%s@example.com\"}".formatted(prefix, UUID.randomUUID());
+        HttpResponse<String> response = send(baseUrl, "POST", "/api/v1/users", body, null);
+        assertThat(response.statusCode()).isEqualTo(201);
+        return objectMapper.readTree(response.body()).get("walletId").asLong();
+    }
+
+    private String balance(String baseUrl, long walletId) throws Exception {
+        HttpResponse<String> response = send(baseUrl, "GET", "/api/v1/wallets/" + walletId, null, null);
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("balance").decimalValue().setScale(2).toPlainString();
+    }
+
+    private HttpResponse<String> send(String baseUrl, String method, String path, String body, String idempotencyKey)
+            throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (idempotencyKey != null) {
+            builder.header("X-Idempotency-Key", idempotencyKey);
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
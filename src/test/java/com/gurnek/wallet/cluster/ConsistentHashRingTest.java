@@ -0,0 +1,34 @@
+package com.gurnek.wallet.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    @Test
+    void shouldSpreadBlocksEvenlyAndMoveFewWhenNodeJoins() {
+        ConsistentHashRing three = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing four = new ConsistentHashRing(List.of("node-d", "node-c", "node-b", "node-a"), 128);
+        Map<String, Integer> owned = new HashMap<>();
+        int moved = 0;
+        int blocks = 30_000;
+        for (long block = 0; block < blocks; block++) {
+            String before = three.ownerOf(block);
+            String after = four.ownerOf(block);
+            owned.merge(before, 1, Integer::sum);
+            if (!before.equals(after)) {
+                assertThat(after).isEqualTo("node-d");
+                moved++;
+            }
+        }
+
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(blocks / 3 * 8 / 10, blocks / 3 * 12 / 10));
+        assertThat(moved).isBetween(blocks / 4 * 7 / 10, blocks / 4 * 13 / 10);
+        assertThat(new ConsistentHashRing(List.of("node-c", "node-b", "node-a"), 128).ownerOf(42)).isEqualTo(three.ownerOf(42));
+    }
+}
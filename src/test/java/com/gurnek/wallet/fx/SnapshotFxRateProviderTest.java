@@ -0,0 +1,89 @@
+package com.gurnek.wallet.fx;
+
+import com.gurnek.wallet.service.BusinessException;
+import com.gurnek.wallet.service.FxConversion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotFxRateProviderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldPrecomputeCrossRatesThroughBaseCurrency() {
+        FxRateSnapshot snapshot = FxRateSnapshot.of(3L, "USD",
+                Map.of("EUR", new BigDecimal("1.08"), "JPY", new BigDecimal("0.0067")));
+
+        assertThat(snapshot.rate("USD", "USD")).isEqualTo(100_000_000L);
+        assertThat(snapshot.rate("EUR", "USD")).isEqualTo(108_000_000L);
+        assertThat(snapshot.rate("USD", "EUR")).isEqualTo(92_592_593L);
+        assertThat(snapshot.rate("EUR", "JPY")).isEqualTo(16_119_402_985L);
+        assertThat(snapshot.rate("USD", "GBP")).isEqualTo(-1L);
+        assertThat(snapshot.supports("JPY")).isTrue();
+    }
+
+    @Test
+    void shouldRoundConversionsHalfUpAndSurviveLongOverflow() {
+        assertThat(FxRateSnapshot.convertMinorUnits(2000L, 92_592_593L)).isEqualTo(1852L);
+        assertThat(FxRateSnapshot.convertMinorUnits(1L, 50_000_000L)).isEqualTo(1L);
+        assertThat(FxRateSnapshot.convertMinorUnits(1L, 49_999_999L)).isZero();
+
+        long minorUnits = 1_000_000_000_000L;
+        long rate = 16_119_402_985L;
+        assertThat(FxRateSnapshot.convertMinorUnits(minorUnits, rate)).isEqualTo(161_194_029_850_000L);
+    }
+
+    @Test
+    void shouldConvertAgainstInlineRates() {
+        SnapshotFxRateProvider provider = new SnapshotFxRateProvider(properties(null));
+
+        FxConversion conversion = provider.convert("USD", "EUR", new BigDecimal("20.00"));
+
+        assertThat(conversion.creditedAmount()).isEqualByComparingTo("18.52");
+        assertThat(conversion.rate()).isEqualByComparingTo("0.92592593");
+        assertThat(conversion.rateVersion()).isEqualTo(1L);
+        assertThatThrownBy(() -> provider.convert("USD", "GBP", BigDecimal.TEN))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("no FX rate for USD->GBP");
+        assertThatThrownBy(() -> provider.convert("JPY", "USD", new BigDecimal("0.01")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("amount is too small to convert from JPY to USD");
+    }
+
+    @Test
+    void shouldSwapSnapshotOnlyWhenFileVersionChanges() throws IOException {
+        Path file = directory.resolve("rates.properties");
+        Files.writeString(file, "version=1\nEUR=1.08\n");
+        SnapshotFxRateProvider provider = new SnapshotFxRateProvider(properties(file));
+        FxRateSnapshot first = provider.current();
+
+        provider.refresh();
+        assertThat(provider.current()).isSameAs(first);
+
+        Files.writeString(file, "version=2\nEUR=1.10\nGBP=1.25\n");
+        provider.refresh();
+        assertThat(provider.current().version()).isEqualTo(2L);
+        assertThat(provider.convert("EUR", "USD", new BigDecimal("10.00")).creditedAmount()).isEqualByComparingTo("11.00");
+        assertThat(provider.supports("GBP")).isTrue();
+
+        Files.writeString(file, "version=3\nEUR=not-a-rate\n");
+        provider.refresh();
+        assertThat(provider.current().version()).isEqualTo(2L);
+    }
+
+    private FxProperties properties(Path ratesFile) {
+        return new FxProperties(true, "USD", ratesFile, Map.of("EUR", new BigDecimal("1.08"), "JPY", new BigDecimal("0.0067")),
+                Duration.ofMinutes(1));
+    }
+}
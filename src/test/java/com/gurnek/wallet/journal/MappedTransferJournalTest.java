@@ -0,0 +1,215 @@
+package com.gurnek.wallet.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedTransferJournalTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRebuildBalancesOnReopen() throws IOException {
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            journal.recordDeposit(1L, new BigDecimal("100.00"));
+            journal.recordTransfer(1L, 2L, new BigDecimal("30.25"), "key-1");
+        }
+
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            assertThat(journal.lastSequence()).isEqualTo(2L);
+            assertThat(journal.balanceOf(1L)).hasValue(6975L);
+            assertThat(journal.balanceOf(2L)).hasValue(3025L);
+            assertThat(journal.balanceOf(3L)).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldReplayCrossCurrencyTransferAsWithdrawalAndDeposit() throws IOException {
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            journal.recordDeposit(1L, new BigDecimal("100.00"));
+            journal.recordConversion(1L, 2L, new BigDecimal("20.00"), new BigDecimal("18.52"), "fx-1");
+        }
+
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            assertThat(journal.lastSequence()).isEqualTo(3L);
+            assertThat(journal.balanceOf(1L)).hasValue(8000L);
+            assertThat(journal.balanceOf(2L)).hasValue(1852L);
+        }
+    }
+
+    @Test
+    void shouldApplyTransactionalRecordsOnlyOnceCommitted() throws IOException {
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            journal.recordDeposit(1L, new BigDecimal("100.00"));
+
+            List<TransactionSynchronization> committed = inTransaction(
+                    () -> journal.recordTransfer(1L, 2L, new BigDecimal("10.00"), "committed"));
+            assertThat(journal.balanceOf(2L)).isEmpty();
+            TransactionSynchronizationUtils.invokeAfterCommit(committed);
+            TransactionSynchronizationUtils.invokeAfterCompletion(committed, TransactionSynchronization.STATUS_COMMITTED);
+
+            List<TransactionSynchronization> rolledBack = inTransaction(
+                    () -> journal.recordTransfer(1L, 2L, new BigDecimal("20.00"), "rolled-back"));
+            TransactionSynchronizationUtils.invokeAfterCompletion(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            inTransaction(() -> journal.recordTransfer(1L, 2L, new BigDecimal("40.00"), "crashed"));
+            assertThat(journal.balanceOf(1L)).hasValue(9000L);
+            assertThat(journal.balanceOf(2L)).hasValue(1000L);
+        }
+
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            assertThat(journal.lastSequence()).isEqualTo(5L);
+            assertThat(journal.balanceOf(1L)).hasValue(9000L);
+            assertThat(journal.balanceOf(2L)).hasValue(1000L);
+        }
+    }
+
+    @Test
+    void shouldKeepOpenTransactionRecordsThroughCompaction() throws IOException {
+        try (MappedTransferJournal journal = MappedTransferJournal.open(directory, 512, FsyncPolicy.PER_RECORD, Duration.ZERO)) {
+            journal.recordDeposit(1L, new BigDecimal("1000.00"));
+            for (int i = 0; i < 10; i++) {
+                journal.recordTransfer(1L, 2L, new BigDecimal("1.00"), "before-" + i);
+            }
+            List<TransactionSynchronization> openTransaction = inTransaction(
+                    () -> journal.recordTransfer(1L, 3L, new BigDecimal("50.00"), "open"));
+            for (int i = 0; i < 10; i++) {
+                journal.recordTransfer(1L, 2L, new BigDecimal("1.00"), "after-" + i);
+            }
+            int segmentsBefore = segments().size();
+            journal.compact();
+            assertThat(segments()).hasSizeLessThan(segmentsBefore).hasSizeGreaterThan(1);
+            TransactionSynchronizationUtils.invokeAfterCommit(openTransaction);
+            TransactionSynchronizationUtils.invokeAfterCompletion(openTransaction, TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            assertThat(journal.balanceOf(1L)).hasValue(93000L);
+            assertThat(journal.balanceOf(2L)).hasValue(2000L);
+            assertThat(journal.balanceOf(3L)).hasValue(5000L);
+        }
+    }
+
+    @Test
+    void shouldReportBalancesThatDifferFromTheWalletTable() throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:journal-check;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE wallet (id BIGINT PRIMARY KEY, balance NUMERIC(19, 2))");
+        jdbcTemplate.update("INSERT INTO wallet VALUES (1, 70.00), (2, 30.00), (3, 0.00), (4, 5.00)");
+
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            journal.recordDeposit(1L, new BigDecimal("100.00"));
+            journal.recordTransfer(1L, 2L, new BigDecimal("30.00"), "key-1");
+            assertThat(journal.checkBalances(jdbcTemplate)).isEqualTo(1);
+
+            journal.recordDeposit(9L, new BigDecimal("1.00"));
+            assertThat(journal.checkBalances(jdbcTemplate)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shouldDiscardTornRecordAndKeepAppending() throws IOException {
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            journal.recordDeposit(1L, new BigDecimal("10.00"));
+            journal.recordDeposit(1L, new BigDecimal("5.00"));
+        }
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long secondRecordPayload = 8 + 35 + 8 + 20;
+            file.seek(secondRecordPayload);
+            file.write(0x7f);
+        }
+
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            assertThat(journal.lastSequence()).isEqualTo(1L);
+            assertThat(journal.balanceOf(1L)).hasValue(1000L);
+            journal.recordDeposit(1L, new BigDecimal("1.00"));
+        }
+        try (MappedTransferJournal journal = open(FsyncPolicy.PER_RECORD)) {
+            assertThat(journal.lastSequence()).isEqualTo(2L);
+            assertThat(journal.balanceOf(1L)).hasValue(1100L);
+        }
+    }
+
+    @Test
+    void shouldRollSegmentsAndCompactIntoSnapshot() throws IOException {
+        try (MappedTransferJournal journal = MappedTransferJournal.open(directory, 512, FsyncPolicy.INTERVAL, Duration.ofMillis(5))) {
+            journal.recordDeposit(1L, new BigDecimal("1000.00"));
+            for (int i = 0; i < 100; i++) {
+                journal.recordTransfer(1L, 2L, new BigDecimal("1.00"), "transfer-" + i);
+            }
+        }
+        assertThat(segments()).hasSizeGreaterThan(1);
+
+        JournalCompactor.main(new String[]{directory.toString(), "512B"});
+
+        assertThat(segments()).hasSize(1);
+        assertThat(Files.size(segments().get(0))).isEqualTo(512L);
+        assertThat(directory.resolve(JournalSnapshot.FILE_NAME)).exists();
+        try (MappedTransferJournal journal = open(FsyncPolicy.GROUP)) {
+            assertThat(journal.lastSequence()).isEqualTo(101L);
+            assertThat(journal.balanceOf(1L)).hasValue(90000L);
+            assertThat(journal.balanceOf(2L)).hasValue(10000L);
+        }
+    }
+
+    @Test
+    void shouldKeepEveryConcurrentGroupCommit() throws Exception {
+        try (MappedTransferJournal journal = open(FsyncPolicy.GROUP)) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for (int i = 0; i < 400; i++) {
+                executor.submit(() -> journal.recordDeposit(7L, new BigDecimal("0.01")));
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        try (MappedTransferJournal journal = open(FsyncPolicy.GROUP)) {
+            assertThat(journal.lastSequence()).isEqualTo(400L);
+            assertThat(journal.balanceOf(7L)).hasValue(400L);
+        }
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private MappedTransferJournal open(FsyncPolicy policy) throws IOException {
+        return MappedTransferJournal.open(directory, SEGMENT_SIZE, policy, Duration.ofMillis(5));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(JournalSegment.FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
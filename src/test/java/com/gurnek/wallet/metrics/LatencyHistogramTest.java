@@ -0,0 +1,36 @@
+package com.gurnek.wallet.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldMapIndexesToContiguousValueRanges() {
+        long previous = -1;
+        for (long value : new long[]{0, 1, 127, 128, 130, 255, 256, 1_000, 65_535, 1_000_000, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.lowestEquivalentValue(index)).isLessThanOrEqualTo(value);
+            assertThat(index).isGreaterThan((int) previous);
+            previous = index;
+        }
+    }
+
+    @Test
+    void shouldReportPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.recordValue(micros);
+        }
+
+        LatencyHistogram.Summary summary = histogram.summary();
+
+        assertThat(summary.count()).isEqualTo(100_000);
+        assertThat(summary.max()).isEqualTo(100_000);
+        assertThat((double) summary.p50()).isCloseTo(50_000, within(50_000 * 0.02));
+        assertThat((double) summary.p99()).isCloseTo(99_000, within(99_000 * 0.02));
+        assertThat(summary.mean()).isCloseTo(50_000.5, within(0.01));
+    }
+}
@@ -0,0 +1,105 @@
+package com.gurnek.wallet.profiling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gurnek.wallet.service.TransferPhase;
+import com.gurnek.wallet.service.TransferPhaseEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "wallet.profiling.enabled=true",
+        "wallet.profiling.window=PT1H",
+        "management.endpoints.web.exposure.include=health,info,transferprofile"
+})
+@AutoConfigureMockMvc
+class TransferProfileEndpointTest {
+
+    @TempDir
+    static Path dumpDirectory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void profilingProperties(DynamicPropertyRegistry registry) {
+        registry.add("wallet.profiling.dump-directory", () -> dumpDirectory.toString());
+    }
+
+    @Test
+    void shouldSummarizeTransferPhasesAndDumpRecording() throws Exception {
+        Long walletA = createUser("profile-a");
+        Long walletB = createUser("profile-b");
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/deposit", walletA)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"amount": 100.00}
+                                """))
+                .andExpect(status().isOk());
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/v1/transfers")
+                            .header("X-Idempotency-Key", "profile-" + UUID.randomUUID())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"fromWalletId": %d, "toWalletId": %d, "amount": 1.00}
+                                    """.formatted(walletA, walletB)))
+                    .andExpect(status().isCreated());
+        }
+
+        JsonNode current = null;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            current = read(mockMvc.perform(get("/actuator/transferprofile")).andExpect(status().isOk())).get("current");
+            if (current.get(TransferPhase.COMMIT.name()).get("count").asLong() >= 5) {
+                break;
+            }
+            Thread.sleep(200);
+        }
+        for (TransferPhase phase : TransferPhase.values()) {
+            assertThat(current.get(phase.name()).get("count").asLong()).as(phase.name()).isGreaterThanOrEqualTo(5);
+        }
+        assertThat(current.has("GC_PAUSE")).isTrue();
+
+        JsonNode dump = read(mockMvc.perform(post("/actuator/transferprofile")).andExpect(status().isOk()));
+        Path file = Path.of(dump.get("path").asText());
+        assertThat(file.getParent()).isEqualTo(dumpDirectory);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).anyMatch(event -> event.getEventType().getName().equals(TransferPhaseEvent.NAME)
+                && event.getString("phase").equals(TransferPhase.FLUSH.name()));
+    }
+
+    private Long createUser(String prefix) throws Exception {
+        return read(mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fullName":"%s", "email":"%s-%s@example.com"}
+                                """.formatted(prefix, prefix, UUID.randomUUID())))
+                .andExpect(status().isCreated())).get("walletId").asLong();
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
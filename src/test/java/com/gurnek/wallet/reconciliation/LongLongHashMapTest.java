@@ -0,0 +1,27 @@
+package com.gurnek.wallet.reconciliation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongLongHashMapTest {
+
+    @Test
+    void shouldAccumulateAcrossResizesAndMerges() {
+        LongLongHashMap left = new LongLongHashMap(4);
+        LongLongHashMap right = new LongLongHashMap();
+        for (long key = 0; key < 10_000; key++) {
+            left.addTo(key, key);
+            right.addTo(key * 2, 1);
+        }
+
+        left.addAll(right);
+
+        assertThat(left.size()).isEqualTo(15_000);
+        assertThat(left.get(0, -1)).isEqualTo(1);
+        assertThat(left.get(3, -1)).isEqualTo(3);
+        assertThat(left.get(4, -1)).isEqualTo(5);
+        assertThat(left.get(19_998, -1)).isEqualTo(1);
+        assertThat(left.get(19_999, -1)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,116 @@
+package com.gurnek.wallet.reconciliation;
+
+import com.gurnek.wallet.api.dto.CreateUserRequest;
+import com.gurnek.wallet.api.dto.TransferRequest;
+import com.gurnek.wallet.reconciliation.ReconciliationReport.Discrepancy;
+import com.gurnek.wallet.reconciliation.ReconciliationReport.State;
+import com.gurnek.wallet.service.WalletService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "wallet.reconciliation.chunk-size=2",
+        "wallet.reconciliation.parallelism=8",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@AutoConfigureMockMvc
+class ReconciliationServiceTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldReportOnlyWalletsWhoseBalanceDivergesFromLedger() {
+        Long walletA = createWallet("Recon A");
+        Long walletB = createWallet("Recon B");
+        Long walletC = createWallet("Recon C");
+        walletService.deposit(walletA, new BigDecimal("100.00"));
+        walletService.deposit(walletC, new BigDecimal("5.50"));
+        for (int i = 0; i < 5; i++) {
+            walletService.transfer(new TransferRequest(walletA, walletB, new BigDecimal("7.25")), "recon-" + UUID.randomUUID());
+        }
+        jdbcTemplate.update("UPDATE wallet SET balance = balance + 1.00 WHERE id = ?", walletC);
+
+        ReconciliationReport report = reconciliationService.reconcile();
+
+        assertThat(report.state()).isEqualTo(State.COMPLETED);
+        assertThat(report.processedChunks()).isEqualTo(report.totalChunks());
+        assertThat(report.rowsScanned()).isGreaterThanOrEqualTo(7);
+        assertThat(report.discrepancies()).extracting(Discrepancy::walletId)
+                .contains(walletC)
+                .doesNotContain(walletA, walletB);
+        Discrepancy discrepancy = report.discrepancies().stream()
+                .filter(candidate -> candidate.walletId().equals(walletC))
+                .findFirst()
+                .orElseThrow();
+        assertThat(discrepancy.balance()).isEqualByComparingTo("6.50");
+        assertThat(discrepancy.expectedBalance()).isEqualByComparingTo("5.50");
+    }
+
+    @Test
+    void shouldLeaveConnectionsFreeForTransfersWhileRunning() throws Exception {
+        Long walletA = createWallet("Recon Pool A");
+        Long walletB = createWallet("Recon Pool B");
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate("INSERT INTO deposit_transaction (wallet_id, amount, created_at) VALUES (?, 1.00, ?)",
+                Collections.nCopies(4000, new Object[]{walletA, now}));
+        jdbcTemplate.update("UPDATE wallet SET balance = balance + 4000.00 WHERE id = ?", walletA);
+        assertThat(((HikariDataSource) dataSource).getMaximumPoolSize()).isEqualTo(4);
+
+        int overlapping = 0;
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            ReconciliationReport started = reconciliationService.start();
+            assertThat(started.parallelism()).isEqualTo(1);
+            while (reconciliationService.status().state() == State.RUNNING) {
+                walletService.transfer(new TransferRequest(walletA, walletB, new BigDecimal("0.01")),
+                        "recon-pool-" + UUID.randomUUID());
+                overlapping++;
+            }
+        }
+
+        assertThat(overlapping).isPositive();
+        assertThat(reconciliationService.status().state()).isEqualTo(State.COMPLETED);
+        assertThat(reconciliationService.status().discrepancies()).extracting(Discrepancy::walletId)
+                .doesNotContain(walletA, walletB);
+    }
+
+    @Test
+    void shouldNotExposeEndpointOverHttpByDefault() throws Exception {
+        mockMvc.perform(post("/actuator/reconciliation")).andExpect(status().isNotFound());
+    }
+
+    private Long createWallet(String name) {
+        return walletService.createUserWithWallet(
+                new CreateUserRequest(name, "recon-" + UUID.randomUUID() + "@example.com", null)).walletId();
+    }
+}
@@ -0,0 +1,103 @@
+package com.gurnek.wallet.service;
+
+import com.gurnek.wallet.domain.HoldStatus;
+import com.gurnek.wallet.domain.TransferTransaction;
+import com.gurnek.wallet.domain.Wallet;
+import com.gurnek.wallet.domain.WalletHold;
+import com.gurnek.wallet.domain.WalletTier;
+import com.gurnek.wallet.repository.TransferTransactionRepository;
+import com.gurnek.wallet.repository.WalletHoldRepository;
+import com.gurnek.wallet.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HoldServiceTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private WalletHoldRepository walletHoldRepository;
+
+    @Mock
+    private TransferTransactionRepository transferTransactionRepository;
+
+    @Mock
+    private TransferJournal transferJournal;
+
+    @Mock
+    private VelocityLimiter velocityLimiter;
+
+    private HoldService holdService;
+
+    @BeforeEach
+    void setUp() {
+        holdService = new HoldService(walletRepository, walletHoldRepository, transferTransactionRepository,
+                transferJournal, velocityLimiter, WalletPartitioning.singleNode(), FxRateProvider.sameCurrencyOnly(),
+                new HoldProperties(Duration.ofMinutes(15), Duration.ofDays(7), Duration.ofSeconds(30), 500));
+
+        WalletHold hold = new WalletHold();
+        hold.setWalletId(1L);
+        hold.setToWalletId(2L);
+        hold.setAmount(new BigDecimal("80.00"));
+        hold.setStatus(HoldStatus.AUTHORIZED);
+        Wallet wallet = new Wallet();
+        wallet.setCurrency("USD");
+        wallet.setTier(WalletTier.PREMIUM);
+
+        when(walletHoldRepository.findByIdAndWalletId(9L, 1L)).thenReturn(Optional.of(hold));
+        when(walletHoldRepository.markCaptured(eq(9L), any(BigDecimal.class), any(Instant.class))).thenReturn(1);
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findCurrencyById(2L)).thenReturn(Optional.of("USD"));
+    }
+
+    @Test
+    void shouldNotMoveFundsWhenCaptureExceedsVelocityLimit() {
+        doThrow(new VelocityLimitExceededException("velocity limit exceeded: too many transfers"))
+                .when(velocityLimiter).checkAndRecord(1L, WalletTier.PREMIUM, new BigDecimal("50.00"));
+
+        assertThatThrownBy(() -> holdService.capture(1L, 9L, new BigDecimal("50.00")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("velocity limit exceeded: too many transfers");
+
+        verify(walletRepository, never()).captureHeld(anyLong(), any(), any());
+        verify(walletRepository, never()).credit(anyLong(), any());
+        verifyNoInteractions(transferJournal, transferTransactionRepository);
+    }
+
+    @Test
+    void shouldJournalCaptureBeforeMovingFunds() {
+        when(walletRepository.credit(2L, new BigDecimal("50.00"))).thenReturn(1);
+        when(transferTransactionRepository.save(any(TransferTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(walletHoldRepository.save(any(WalletHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        holdService.capture(1L, 9L, new BigDecimal("50.00"));
+
+        InOrder order = inOrder(velocityLimiter, transferJournal, walletRepository);
+        order.verify(velocityLimiter).checkAndRecord(1L, WalletTier.PREMIUM, new BigDecimal("50.00"));
+        order.verify(transferJournal).recordTransfer(1L, 2L, new BigDecimal("50.00"), "hold-9-capture");
+        order.verify(walletRepository).captureHeld(1L, new BigDecimal("50.00"), new BigDecimal("80.00"));
+        order.verify(walletRepository).credit(2L, new BigDecimal("50.00"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.gurnek.wallet.service;
+
+import com.gurnek.wallet.domain.ScheduledTransfer;
+import com.gurnek.wallet.domain.TransferRecurrence;
+import com.gurnek.wallet.repository.ScheduledTransferRepository;
+import com.gurnek.wallet.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledTransferServiceTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T09:00:00Z");
+
+    @Mock
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Test
+    void shouldRunEveryMissedOccurrenceByDefault() {
+        ScheduledTransferService service = service(ScheduleProperties.CatchUp.RUN_ALL);
+
+        assertThat(service.occurrenceToRun(daily(2, null), START.plus(Duration.ofDays(10)))).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCoalesceMissedOccurrencesIntoTheLatestDueOne() {
+        ScheduledTransferService service = service(ScheduleProperties.CatchUp.COALESCE);
+        Instant now = START.plus(Duration.ofDays(10)).plusSeconds(60);
+
+        assertThat(service.occurrenceToRun(daily(2, null), now)).isEqualTo(10);
+        assertThat(service.occurrenceToRun(daily(2, 6), now)).isEqualTo(5);
+        assertThat(service.occurrenceToRun(daily(2, null), START.plus(Duration.ofDays(2)))).isEqualTo(2);
+    }
+
+    private ScheduledTransferService service(ScheduleProperties.CatchUp catchUp) {
+        return new ScheduledTransferService(scheduledTransferRepository, walletRepository,
+                WalletPartitioning.singleNode(),
+                new ScheduleProperties(true, Duration.ofSeconds(1), 200, 4, Duration.ofMinutes(1), catchUp,
+                        Duration.ofMinutes(5)));
+    }
+
+    private static ScheduledTransfer daily(long occurrence, Integer maxOccurrences) {
+        ScheduledTransfer schedule = new ScheduledTransfer();
+        schedule.setRecurrence(TransferRecurrence.DAILY);
+        schedule.setStartAt(START);
+        schedule.setOccurrence(occurrence);
+        schedule.setMaxOccurrences(maxOccurrences);
+        return schedule;
+    }
+}
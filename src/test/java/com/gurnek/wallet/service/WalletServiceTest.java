@@ -5,6 +5,8 @@ import com.gurnek.wallet.api.dto.WalletResponse;
 import com.gurnek.wallet.domain.TransferStatus;
 import com.gurnek.wallet.domain.TransferTransaction;
 import com.gurnek.wallet.domain.Wallet;
+import com.gurnek.wallet.domain.WalletTier;
+import com.gurnek.wallet.repository.DepositTransactionRepository;
 import com.gurnek.wallet.repository.TransferTransactionRepository;
 import com.gurnek.wallet.repository.UserAccountRepository;
 import com.gurnek.wallet.repository.WalletRepository;
@@ -20,6 +22,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -36,6 +40,21 @@ class WalletServiceTest {
     @Mock
     private TransferTransactionRepository transferTransactionRepository;
 
+    @Mock
+    private DepositTransactionRepository depositTransactionRepository;
+
+    @Mock
+    private TransferJournal transferJournal;
+
+    @Mock
+    private VelocityLimiter velocityLimiter;
+
+    @Mock
+    private WalletPartitioning walletPartitioning;
+
+    @Mock
+    private FxRateProvider fxRateProvider;
+
     @InjectMocks
     private WalletService walletService;
 
@@ -65,6 +84,25 @@ class WalletServiceTest {
         verifyNoInteractions(walletRepository);
     }
 
+    @Test
+    void shouldRejectRemoteCreditWhoseKeyBelongsToAnotherTransfer() {
+        TransferTransaction tx = new TransferTransaction();
+        tx.setFromWalletId(7L);
+        tx.setToWalletId(2L);
+        tx.setAmount(new BigDecimal("500.00"));
+        tx.setStatus(TransferStatus.SUCCESS);
+        tx.setIdempotencyKey("saga-node-a-41");
+
+        when(transferTransactionRepository.findByIdempotencyKey("saga-node-a-41")).thenReturn(Optional.of(tx));
+
+        assertThatThrownBy(() -> walletService.creditRemoteTransfer(
+                1L, 2L, new BigDecimal("20.00"), "USD", "saga-node-a-41"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("idempotency key already used for a different transfer");
+
+        verifyNoInteractions(walletRepository, transferJournal);
+    }
+
     @Test
     void shouldFailWhenTransferUsesSameWallet() {
         assertThatThrownBy(() -> walletService.transfer(
@@ -131,11 +169,82 @@ class WalletServiceTest {
         assertThat(destination.getBalance()).isEqualByComparingTo("35.00");
         assertThat(response.status()).isEqualTo(TransferStatus.SUCCESS);
 
+        verify(transferJournal).recordTransfer(1L, 2L, new BigDecimal("20.00"), "ok-key");
         verify(walletRepository).save(source);
         verify(walletRepository).save(destination);
         verify(transferTransactionRepository).save(any(TransferTransaction.class));
     }
 
+    @Test
+    void shouldCreditConvertedAmountAcrossCurrencies() {
+        Wallet source = new Wallet();
+        source.setBalance(new BigDecimal("100.00"));
+        Wallet destination = new Wallet();
+        destination.setBalance(new BigDecimal("0.00"));
+        destination.setCurrency("EUR");
+        FxConversion conversion = new FxConversion(new BigDecimal("18.52"), new BigDecimal("0.92592593"), 7L);
+
+        when(transferTransactionRepository.findByIdempotencyKey("fx-key")).thenReturn(Optional.empty());
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(source));
+        when(walletRepository.findById(2L)).thenReturn(Optional.of(destination));
+        when(fxRateProvider.convert("USD", "EUR", new BigDecimal("20.00"))).thenReturn(conversion);
+        when(transferTransactionRepository.save(any(TransferTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var response = walletService.transfer(new TransferRequest(1L, 2L, new BigDecimal("20.00")), "fx-key");
+
+        assertThat(source.getBalance()).isEqualByComparingTo("80.00");
+        assertThat(destination.getBalance()).isEqualByComparingTo("18.52");
+        assertThat(response.amount()).isEqualByComparingTo("20.00");
+        assertThat(response.creditedAmount()).isEqualByComparingTo("18.52");
+        assertThat(response.fxRateVersion()).isEqualTo(7L);
+        verify(transferJournal).recordConversion(1L, 2L, new BigDecimal("20.00"), new BigDecimal("18.52"), "fx-key");
+        verify(transferJournal, never()).recordTransfer(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldHoldDebitWhenDestinationWalletIsOnAnotherNode() {
+        Wallet source = new Wallet();
+        source.setBalance(new BigDecimal("100.00"));
+
+        when(transferTransactionRepository.findByIdempotencyKey("remote-key")).thenReturn(Optional.empty());
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(source));
+        when(walletPartitioning.isRemote(2L)).thenReturn(true);
+        when(walletPartitioning.assignTransferId()).thenReturn(5001L);
+        when(transferTransactionRepository.save(any(TransferTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var response = walletService.transfer(new TransferRequest(1L, 2L, new BigDecimal("30.00")), "remote-key");
+
+        assertThat(source.getBalance()).isEqualByComparingTo("70.00");
+        assertThat(response.transferId()).isEqualTo(5001L);
+        assertThat(response.status()).isEqualTo(TransferStatus.DEBIT_HELD);
+        verify(walletRepository, never()).findById(2L);
+        verify(walletRepository).save(source);
+    }
+
+    @Test
+    void shouldNotMoveFundsWhenVelocityLimitExceeded() {
+        Wallet source = new Wallet();
+        source.setBalance(new BigDecimal("100.00"));
+        Wallet destination = new Wallet();
+        destination.setBalance(new BigDecimal("0.00"));
+
+        when(transferTransactionRepository.findByIdempotencyKey("velocity")).thenReturn(Optional.empty());
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(source));
+        when(walletRepository.findById(2L)).thenReturn(Optional.of(destination));
+        doThrow(new VelocityLimitExceededException("velocity limit exceeded: too many transfers"))
+                .when(velocityLimiter).checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("10.00"));
+
+        assertThatThrownBy(() -> walletService.transfer(
+                new TransferRequest(1L, 2L, new BigDecimal("10.00")),
+                "velocity"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("velocity limit exceeded: too many transfers");
+
+        assertThat(source.getBalance()).isEqualByComparingTo("100.00");
+        verify(walletRepository, never()).save(any(Wallet.class));
+        verifyNoInteractions(transferJournal);
+    }
+
     @Test
     void shouldGetWalletBalance() {
         Wallet wallet = new Wallet();
@@ -0,0 +1,52 @@
+package com.gurnek.wallet.simulator;
+
+import com.gurnek.wallet.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class WorkloadSimulatorTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Test
+    void shouldDriveInProcessWorkloadAndClassifyOutcomes() throws InterruptedException {
+        SimulatorProperties properties = new SimulatorProperties(false, SimulatorProperties.Mode.IN_PROCESS,
+                "http://localhost:8080", 10, new BigDecimal("5.00"), new BigDecimal("1.00"), 0.99, 0.2, 0.2,
+                200, Duration.ofSeconds(1), 4, 7L);
+
+        WorkloadReport report = new WorkloadSimulator(new InProcessWorkloadTarget(walletService), properties).run();
+
+        assertThat(report.issued()).isBetween(150L, 250L);
+        assertThat(report.completed()).isEqualTo(report.issued());
+        assertThat(report.outcomes().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(report.completed());
+        assertThat(report.count(Outcome.SUCCESS)).isPositive();
+        assertThat(report.count(Outcome.REPLAY)).isPositive();
+        assertThat(report.count(Outcome.ERROR)).isZero();
+        assertThat(report.responseTimes().get(WorkloadReport.Operation.TRANSFER).count()
+                + report.responseTimes().get(WorkloadReport.Operation.READ).count()).isEqualTo(report.completed());
+    }
+
+    @Test
+    void zipfianGeneratorShouldFavourLowRanks() {
+        ZipfianGenerator generator = new ZipfianGenerator(100, 0.99);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] hits = new int[100];
+        for (int i = 0; i < 100_000; i++) {
+            hits[(int) generator.next(random.nextDouble())]++;
+        }
+
+        assertThat(hits[0]).isGreaterThan(hits[1]);
+        assertThat(hits[1]).isGreaterThan(hits[10]);
+        assertThat(hits[0]).isGreaterThan(100_000 / 10);
+        assertThat(new ZipfianGenerator(5, 0).next(0.999)).isEqualTo(4);
+    }
+}
@@ -0,0 +1,110 @@
+package com.gurnek.wallet.velocity;
+
+import com.gurnek.wallet.domain.WalletTier;
+import com.gurnek.wallet.service.VelocityLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowVelocityLimiterTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(START);
+    private final SlidingWindowVelocityLimiter limiter = new SlidingWindowVelocityLimiter(new VelocityProperties(
+            true, Duration.ofMinutes(1), 6, Duration.ofMinutes(1), Map.of(
+                    WalletTier.STANDARD, new VelocityProperties.Limit(3, new BigDecimal("50.00")),
+                    WalletTier.BUSINESS, new VelocityProperties.Limit(null, null))),
+            clock::get);
+
+    @Test
+    void shouldLimitTransferCountAndAmountWithinWindow() {
+        limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("10.00"));
+        limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("10.00"));
+
+        assertThatThrownBy(() -> limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("30.01")))
+                .isInstanceOf(VelocityLimitExceededException.class)
+                .hasMessage("velocity limit exceeded: transfer amount too high");
+        limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("30.00"));
+        assertThatThrownBy(() -> limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("0.01")))
+                .isInstanceOf(VelocityLimitExceededException.class)
+                .hasMessage("velocity limit exceeded: too many transfers");
+
+        limiter.checkAndRecord(2L, WalletTier.STANDARD, new BigDecimal("50.00"));
+        for (int i = 0; i < 10; i++) {
+            limiter.checkAndRecord(3L, WalletTier.BUSINESS, new BigDecimal("1000.00"));
+            limiter.checkAndRecord(4L, WalletTier.PREMIUM, new BigDecimal("1000.00"));
+        }
+        assertThat(limiter.usage(1L)).isEqualTo(new VelocityUsage(3, 5_000));
+        assertThat(limiter.trackedWallets()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSlideOldBucketsOutAndEvictIdleWallets() {
+        limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("20.00"));
+        clock.addAndGet(30_000);
+        limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("20.00"));
+        limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("10.00"));
+
+        clock.addAndGet(30_000);
+        assertThat(limiter.usage(1L)).isEqualTo(new VelocityUsage(2, 3_000));
+        limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("20.00"));
+
+        limiter.evictIdle();
+        assertThat(limiter.trackedWallets()).isEqualTo(1);
+        clock.addAndGet(60_000);
+        limiter.evictIdle();
+        assertThat(limiter.trackedWallets()).isZero();
+        assertThat(limiter.usage(1L)).isEqualTo(new VelocityUsage(0, 0));
+    }
+
+    @Test
+    void shouldReleaseRecordedDebitWhenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("40.00"));
+            assertThat(limiter.usage(1L)).isEqualTo(new VelocityUsage(1, 4_000));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(limiter.usage(1L)).isEqualTo(new VelocityUsage(0, 0));
+        limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("50.00"));
+    }
+
+    @Test
+    void shouldRebuildCountersFromRecentTransfers() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:velocity-rebuild;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE transfer_transaction (from_wallet_id BIGINT, amount NUMERIC(19, 2), "
+                + "created_at TIMESTAMP(6) WITH TIME ZONE, status VARCHAR(32))");
+        String insert = "INSERT INTO transfer_transaction VALUES (?, ?, ?, ?)";
+        jdbcTemplate.update(insert, 1L, new BigDecimal("25.00"), new Timestamp(START - 120_000), "SUCCESS");
+        jdbcTemplate.update(insert, 1L, new BigDecimal("20.00"), new Timestamp(START - 20_000), "SUCCESS");
+        jdbcTemplate.update(insert, 1L, new BigDecimal("15.00"), new Timestamp(START), "DEBIT_HELD");
+        jdbcTemplate.update(insert, 1L, new BigDecimal("40.00"), new Timestamp(START - 5_000), "COMPENSATED");
+        jdbcTemplate.update(insert, 2L, new BigDecimal("5.00"), new Timestamp(START - 1_000), "SUCCESS");
+        jdbcTemplate.update(insert, 3L, new BigDecimal("60.00"), new Timestamp(START - 1_000), "CREDITED");
+
+        limiter.rebuild(jdbcTemplate);
+
+        assertThat(limiter.usage(1L)).isEqualTo(new VelocityUsage(2, 3_500));
+        assertThat(limiter.usage(2L)).isEqualTo(new VelocityUsage(1, 500));
+        assertThat(limiter.usage(3L)).isEqualTo(new VelocityUsage(0, 0));
+        assertThatThrownBy(() -> limiter.checkAndRecord(1L, WalletTier.STANDARD, new BigDecimal("15.01")))
+                .isInstanceOf(VelocityLimitExceededException.class);
+    }
+}